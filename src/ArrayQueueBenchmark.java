@@ -0,0 +1,90 @@
+import linearDataStructures.ArrayQueue;
+import linearDataStructures.VectorQueue;
+
+/**
+ * Compares the throughput of ArrayQueue with the deprecated VectorQueue: a
+ * burst workload that queues a million items and then drains them, and a
+ * steady workload that keeps about a thousand items queued. VectorQueue
+ * never releases its items, so it also holds on to every item it was given;
+ * the heap each queue retains after draining is reported as well. Each
+ * queue is measured twice and the second round is reported, once the JIT
+ * has settled.
+ */
+@SuppressWarnings("deprecation")
+public class ArrayQueueBenchmark {
+
+	private static final int BURST = 1000000;
+	private static final int STEADY_OPERATIONS = 10000000;
+	private static final int STEADY_DEPTH = 1000;
+
+	public static void main(String[] args) throws Exception {
+		Integer item = new Integer(42);
+
+		for (int round = 0; round < 2; round++) {
+			long before = usedMemory();
+			VectorQueue vectorQueue = new VectorQueue();
+			long start = System.nanoTime();
+			for (int i = 0; i < BURST; i++) {
+				vectorQueue.enQueue(item);
+			}
+			while (!vectorQueue.empty()) {
+				vectorQueue.deQueue();
+			}
+			long vectorBurst = System.nanoTime() - start;
+			long vectorBytes = usedMemory() - before;
+
+			start = System.nanoTime();
+			for (int i = 0; i < STEADY_DEPTH; i++) {
+				vectorQueue.enQueue(item);
+			}
+			for (int i = 0; i < STEADY_OPERATIONS; i++) {
+				vectorQueue.enQueue(item);
+				vectorQueue.deQueue();
+			}
+			long vectorSteady = System.nanoTime() - start;
+
+			before = usedMemory();
+			ArrayQueue arrayQueue = new ArrayQueue();
+			start = System.nanoTime();
+			for (int i = 0; i < BURST; i++) {
+				arrayQueue.enQueue(item);
+			}
+			while (!arrayQueue.empty()) {
+				arrayQueue.deQueue();
+			}
+			long arrayBurst = System.nanoTime() - start;
+			long arrayBytes = usedMemory() - before;
+
+			start = System.nanoTime();
+			for (int i = 0; i < STEADY_DEPTH; i++) {
+				arrayQueue.enQueue(item);
+			}
+			for (int i = 0; i < STEADY_OPERATIONS; i++) {
+				arrayQueue.enQueue(item);
+				arrayQueue.deQueue();
+			}
+			long arraySteady = System.nanoTime() - start;
+
+			if (round == 1) {
+				System.out.println("             burst (Mops/s)  steady (Mops/s)  retained (MB)");
+				print("VectorQueue", vectorBurst, vectorSteady, vectorBytes);
+				print("ArrayQueue", arrayBurst, arraySteady, arrayBytes);
+			}
+		}
+	}
+
+	private static void print(String name, long burstNanos, long steadyNanos,
+			long bytes) {
+		System.out.printf("%-12s %15.1f %16.1f %14.1f%n", name, 2.0 * BURST
+				/ burstNanos * 1e3, 2.0 * STEADY_OPERATIONS / steadyNanos * 1e3,
+				bytes / 1e6);
+	}
+
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,39 @@
+import linearDataStructures.ArrayQueue;
+import linearDataStructures.ArrayQueue.ArrayQueueException;
+
+public class ArrayQueueTest {
+
+	public static void main(String[] args) {
+		ArrayQueue q = new ArrayQueue();
+		for (int i = 0; i < 20; i++) {
+			q.enQueue(new String(i + "th Entry"));
+		}
+
+		System.out.println("Current Queue size is: " + q.size());
+
+		try {
+			System.out.println("Peeking at the head element returns: "
+					+ q.head());
+
+			// Items come out in the order they went in.
+			for (int i = 0; i < 15; i++) {
+				System.out.println(q.deQueue());
+			}
+		} catch (ArrayQueueException e) {
+			System.out.println(e);
+		}
+
+		System.out.println("Current Queue size is: " + q.size());
+
+		q.clear();
+
+		System.out.println("Queue size after clear() is: " + q.size());
+
+		try {
+			q.deQueue();
+		} catch (ArrayQueueException e) {
+			System.out.println(e);
+		}
+	}
+
+}
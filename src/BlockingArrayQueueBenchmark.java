@@ -0,0 +1,161 @@
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import linearDataStructures.BlockingArrayQueue;
+
+/**
+ * Runs a few hundred thousand producer tasks, each putting a handful of
+ * items into one small BlockingArrayQueue, against a few consumers that
+ * remove them with take() or takeUpTo(). On Java 21 and later the producers
+ * are virtual threads, started through reflection as this code is compiled
+ * for Java 8; on earlier runtimes they share a pool of platform threads
+ * instead, which the output says.
+ */
+public class BlockingArrayQueueBenchmark {
+
+	private static final int PRODUCERS = 200000;
+	private static final int ITEMS_PER_PRODUCER = 10;
+	private static final int CONSUMERS = 4;
+	private static final int CAPACITY = 1024;
+	private static final int BATCH = 64;
+	private static final int POOL_THREADS = 256;
+
+	// Put once per consumer after the producers finish, to stop it.
+	private static final Object END = new Object();
+
+	public static void main(String[] args) throws Exception {
+		ExecutorService probe = virtualThreadExecutor();
+		if (probe != null) {
+			probe.shutdown();
+			System.out.println("Producers run on virtual threads");
+		} else {
+			System.out.println("Virtual threads unavailable; producers run on "
+					+ POOL_THREADS + " platform threads");
+		}
+		System.out.println(PRODUCERS + " producers x " + ITEMS_PER_PRODUCER
+				+ " items, " + CONSUMERS + " consumers, capacity " + CAPACITY);
+
+		for (int round = 0; round < 2; round++) {
+			boolean report = round == 1;
+			result(report, "take()", 1);
+			result(report, "takeUpTo(" + BATCH + ")", BATCH);
+		}
+	}
+
+	/**
+	 * Returns Executors.newVirtualThreadPerTaskExecutor() if the runtime has
+	 * it, otherwise null.
+	 */
+	private static ExecutorService virtualThreadExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod(
+					"newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	private static void result(boolean report, String name, int batch)
+			throws InterruptedException {
+		long total = (long) PRODUCERS * ITEMS_PER_PRODUCER;
+		long start = System.nanoTime();
+		long received = run(batch);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		if (received != total) {
+			throw new IllegalStateException(name + " received " + received
+					+ " of " + total + " items");
+		}
+		if (report) {
+			System.out.printf("%-14s %8.3f s %8.2f Mhandoffs/s%n", name,
+					seconds, total / seconds / 1e6);
+		}
+	}
+
+	/**
+	 * Moves every producer's items through a new queue and returns how many
+	 * the consumers received.
+	 */
+	private static long run(final int batch) throws InterruptedException {
+		final BlockingArrayQueue queue = new BlockingArrayQueue(CAPACITY);
+		final AtomicLong received = new AtomicLong();
+		final Integer item = new Integer(42);
+
+		Thread[] consumers = new Thread[CONSUMERS];
+		for (int i = 0; i < CONSUMERS; i++) {
+			consumers[i] = new Thread(new Runnable() {
+				public void run() {
+					try {
+						consume(queue, batch, received);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			});
+			consumers[i].start();
+		}
+
+		ExecutorService producers = virtualThreadExecutor();
+		if (producers == null) {
+			producers = Executors.newFixedThreadPool(POOL_THREADS);
+		}
+		for (int p = 0; p < PRODUCERS; p++) {
+			producers.execute(new Runnable() {
+				public void run() {
+					try {
+						for (int i = 0; i < ITEMS_PER_PRODUCER; i++) {
+							queue.put(item);
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			});
+		}
+		producers.shutdown();
+		producers.awaitTermination(1, TimeUnit.HOURS);
+
+		for (int i = 0; i < CONSUMERS; i++) {
+			queue.put(END);
+		}
+		for (Thread consumer : consumers) {
+			consumer.join();
+		}
+		return received.get();
+	}
+
+	private static void consume(BlockingArrayQueue queue, int batch,
+			AtomicLong received) throws InterruptedException {
+		long count = 0;
+		while (true) {
+			if (batch == 1) {
+				if (queue.take() == END) {
+					break;
+				}
+				count += 1;
+				continue;
+			}
+
+			// A batch may hold the END of other consumers too; put those
+			// back for them.
+			List<Object> items = queue.takeUpTo(batch);
+			int ends = 0;
+			for (Object o : items) {
+				if (o == END) {
+					ends += 1;
+				} else {
+					count += 1;
+				}
+			}
+			if (ends > 0) {
+				for (int i = 1; i < ends; i++) {
+					queue.put(END);
+				}
+				break;
+			}
+		}
+		received.addAndGet(count);
+	}
+}
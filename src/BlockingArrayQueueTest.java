@@ -0,0 +1,41 @@
+import java.util.concurrent.TimeUnit;
+
+import linearDataStructures.BlockingArrayQueue;
+
+public class BlockingArrayQueueTest {
+	public static void main(String[] args) throws InterruptedException {
+		final BlockingArrayQueue q = new BlockingArrayQueue(5);
+		for (int i = 0; i < 5; i++) {
+			q.put(new String(i + "th Entry"));
+		}
+
+		System.out.println("Current Queue size is: " + q.size());
+		System.out.println("offer() on a full queue returns: "
+				+ q.offer("one too many"));
+		System.out.println("offer() waiting 50ms returns: "
+				+ q.offer("one too many", 50, TimeUnit.MILLISECONDS));
+
+		// A producer blocked on the full queue goes on once take() makes room.
+		Thread producer = new Thread(new Runnable() {
+			public void run() {
+				try {
+					q.put("5th Entry");
+					q.put("6th Entry");
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		producer.start();
+
+		System.out.println(q.take());
+		System.out.println(q.take());
+		producer.join();
+
+		System.out.println("takeUpTo(3) returns: " + q.takeUpTo(3));
+		System.out.println("takeUpTo(10) returns: " + q.takeUpTo(10));
+		System.out.println("poll() on an empty queue returns: " + q.poll());
+		System.out.println("poll() waiting 50ms returns: "
+				+ q.poll(50, TimeUnit.MILLISECONDS));
+	}
+}
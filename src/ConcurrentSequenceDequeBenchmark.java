@@ -0,0 +1,128 @@
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import linearDataStructures.ConcurrentSequenceDeque;
+import linearDataStructures.SequenceDLList;
+
+/**
+ * Measures how ConcurrentSequenceDeque scales with the number of threads,
+ * against a SequenceDLList behind one global lock. Every thread inserts and
+ * deletes at randomly chosen ends, so all of them contend for the same two
+ * ends. Pass the largest thread count as the first argument (default 64).
+ */
+public class ConcurrentSequenceDequeBenchmark {
+
+	private static final int INITIAL_ITEMS = 1000;
+	private static final long RUN_MILLIS = 1000;
+
+	/**
+	 * The operations exercised by the benchmark, so that both deques can be
+	 * driven by the same loop.
+	 */
+	private interface Target {
+		void insert(boolean atFirst, Object o);
+
+		Object delete(boolean atFirst);
+	}
+
+	public static void main(String[] args) throws Exception {
+		int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+
+		System.out.println("threads  global lock (Mops/s)  lock-free (Mops/s)");
+		for (int threads = 1; threads <= maxThreads; threads *= 2) {
+			System.out.printf("%7d  %20.2f  %18.2f%n", threads,
+					run(threads, locked()), run(threads, lockFree()));
+		}
+	}
+
+	private static Target locked() {
+		final SequenceDLList list = new SequenceDLList();
+		for (int i = 0; i < INITIAL_ITEMS; i++) {
+			list.insertLast(new Integer(i));
+		}
+		return new Target() {
+			public synchronized void insert(boolean atFirst, Object o) {
+				if (atFirst) {
+					list.insertFirst(o);
+				} else {
+					list.insertLast(o);
+				}
+			}
+
+			public synchronized Object delete(boolean atFirst) {
+				try {
+					Object o = atFirst ? list.first() : list.last();
+					if (atFirst) {
+						list.deleteFirst();
+					} else {
+						list.deleteLast();
+					}
+					return o;
+				} catch (SequenceDLList.SequenceDLListException e) {
+					return null;
+				}
+			}
+		};
+	}
+
+	private static Target lockFree() {
+		final ConcurrentSequenceDeque deque = new ConcurrentSequenceDeque();
+		for (int i = 0; i < INITIAL_ITEMS; i++) {
+			deque.insertLast(new Integer(i));
+		}
+		return new Target() {
+			public void insert(boolean atFirst, Object o) {
+				if (atFirst) {
+					deque.insertFirst(o);
+				} else {
+					deque.insertLast(o);
+				}
+			}
+
+			public Object delete(boolean atFirst) {
+				try {
+					return atFirst ? deque.deleteFirst() : deque.deleteLast();
+				} catch (ConcurrentSequenceDeque.ConcurrentSequenceDequeException e) {
+					return null;
+				}
+			}
+		};
+	}
+
+	/**
+	 * Run the workload on the given number of threads and return the
+	 * throughput in millions of operations per second.
+	 */
+	private static double run(int threads, final Target target)
+			throws InterruptedException {
+		final AtomicLong operations = new AtomicLong();
+		final long deadline = System.currentTimeMillis() + RUN_MILLIS;
+		Thread[] workers = new Thread[threads];
+
+		for (int t = 0; t < threads; t++) {
+			final int seed = t;
+			workers[t] = new Thread(new Runnable() {
+				public void run() {
+					Random random = new Random(seed);
+					Integer item = new Integer(seed);
+					long done = 0;
+					while ((done & 1023) != 0
+							|| System.currentTimeMillis() < deadline) {
+						target.insert(random.nextBoolean(), item);
+						target.delete(random.nextBoolean());
+						done += 2;
+					}
+					operations.addAndGet(done);
+				}
+			});
+			workers[t].start();
+		}
+
+		long start = System.nanoTime();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		return operations.get() / seconds / 1e6;
+	}
+}
@@ -0,0 +1,89 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import linearDataStructures.ConcurrentSequenceDeque;
+import linearDataStructures.ConcurrentSequenceDeque.ConcurrentSequenceDequeException;
+
+public class ConcurrentSequenceDequeTest {
+	public static void main(String[] args) throws InterruptedException {
+		final ConcurrentSequenceDeque myDeque = new ConcurrentSequenceDeque();
+
+		// Two producers add at opposite ends while two consumers take items
+		// off opposite ends, so deleteFirst() and deleteLast() race for the
+		// last item whenever the deque runs down to one.
+		final int perProducer = 10000;
+		final AtomicIntegerArray seen = new AtomicIntegerArray(2 * perProducer);
+		final AtomicInteger taken = new AtomicInteger();
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < 4; t++) {
+			final int id = t;
+			threads[t] = new Thread(new Runnable() {
+				public void run() {
+					if (id < 2) {
+						for (int i = 0; i < perProducer; i++) {
+							Integer item = new Integer(id * perProducer + i);
+							if (id == 0) {
+								myDeque.insertFirst(item);
+							} else {
+								myDeque.insertLast(item);
+							}
+						}
+						return;
+					}
+					while (taken.get() < 2 * perProducer) {
+						try {
+							Object o = id == 2 ? myDeque.deleteFirst()
+									: myDeque.deleteLast();
+							seen.incrementAndGet(((Integer) o).intValue());
+							taken.incrementAndGet();
+						} catch (ConcurrentSequenceDequeException e) {
+							// Momentarily empty; the producers are still
+							// running.
+						}
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		int once = 0;
+		for (int i = 0; i < seen.length(); i++) {
+			if (seen.get(i) == 1) {
+				once += 1;
+			}
+		}
+		System.out.println("Took " + taken.get() + " items, " + once + " of "
+				+ seen.length() + " exactly once, empty: " + myDeque.empty());
+
+		// Removed nodes must not stay linked to the live end. A deque that
+		// never empties would otherwise keep every node it ever held; run
+		// with a small heap (e.g. -Xmx16m) to check.
+		myDeque.insertLast(new Integer(0));
+		for (int i = 1; i <= 10000000; i++) {
+			myDeque.insertLast(new Integer(i));
+			try {
+				myDeque.deleteFirst();
+			} catch (ConcurrentSequenceDequeException e) {
+				System.out.println(e);
+			}
+		}
+		try {
+			System.out.println("After 10000000 steady-state cycles: "
+					+ myDeque.deleteFirst() + ", empty: " + myDeque.empty());
+		} catch (ConcurrentSequenceDequeException e) {
+			System.out.println(e);
+		}
+
+		myDeque.insertLast(new Integer(1));
+		myDeque.insertFirst(new Integer(0));
+		try {
+			System.out.println(myDeque.deleteLast() + " " + myDeque.deleteLast());
+			myDeque.deleteFirst();
+		} catch (ConcurrentSequenceDequeException e) {
+			System.out.println(e);
+		}
+	}
+}
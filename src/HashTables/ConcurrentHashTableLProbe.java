@@ -0,0 +1,338 @@
+package HashTables;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This is a thread-safe hash table with linear probing. Slots are held in an
+ * AtomicReferenceArray and entries are immutable, so retrieve() takes no lock:
+ * it reads each slot with volatile semantics and always sees a complete entry.
+ * 
+ * Writers lock one stripe of the table, chosen by the home slot of the key.
+ * Each stripe covers a contiguous range of slots, so writers of keys that hash
+ * to different ranges proceed in parallel. A probe sequence may run past the
+ * end of its stripe; free slots are therefore claimed with compare-and-set,
+ * and a writer that loses the race simply probes on. Holding the home stripe
+ * means no two threads ever write the same key at once.
+ * 
+ * Deleted entries become tombstones, as entries never move while readers may
+ * be scanning. Once the table passes its maximum load it is rebuilt into a
+ * new array while holding every stripe lock; readers keep using the old array
+ * (which no writer can touch during the rebuild) until the new one is
+ * published, and writers that waited re-check which array is current.
+ * 
+ * Unlike HashTableLProbe, inserting an existing key replaces its value.
+ * 
+ * @author samistart
+ *
+ */
+public class ConcurrentHashTableLProbe {
+
+	public static final int DEFAULT_CONCURRENCY_LEVEL = 64;
+
+	/**
+	 * Entries in the hash table array. A new value means a new entry.
+	 */
+	protected static final class Entry {
+		protected final String key;
+		protected final int hash;
+		protected final Object value;
+
+		Entry(String k, int h, Object v) {
+			key = k;
+			hash = h;
+			value = v;
+		}
+	}
+
+	private static final Entry TOMBSTONE = new Entry(null, 0, null);
+
+	/**
+	 * One generation of the slot array. A resize replaces the whole Table.
+	 */
+	private static final class Table {
+		final AtomicReferenceArray<Entry> slots;
+		final int mask;
+		// Slot index >>> stripeShift gives the stripe of a slot.
+		final int stripeShift;
+		// Non-null slots, tombstones included.
+		final AtomicInteger occupied = new AtomicInteger();
+		final int resizeThreshold;
+
+		Table(int capacity, int stripes, double maxLoadFactor) {
+			slots = new AtomicReferenceArray<Entry>(capacity);
+			mask = capacity - 1;
+			stripeShift = Integer.numberOfTrailingZeros(capacity)
+					- Integer.numberOfTrailingZeros(stripes);
+			resizeThreshold = (int) (capacity * maxLoadFactor);
+		}
+	}
+
+	private volatile Table table;
+	private final ReentrantLock[] locks;
+	private final LongAdder size = new LongAdder();
+	private final HashFunction hashFunction;
+	private final double maxLoadFactor;
+
+	/**
+	 * Default constructor.
+	 */
+	public ConcurrentHashTableLProbe() {
+		this(64);
+	}
+
+	/**
+	 * Constructor for a given initial size.
+	 */
+	public ConcurrentHashTableLProbe(int size) {
+		this(size, DEFAULT_CONCURRENCY_LEVEL, HashFunctions.MURMUR3);
+	}
+
+	/**
+	 * Constructor for a given initial size, number of write lock stripes and
+	 * hash function. The number of stripes is rounded up to a power of two.
+	 */
+	public ConcurrentHashTableLProbe(int size, int concurrencyLevel,
+			HashFunction hashFunction) {
+		if (size < 1 || concurrencyLevel < 1) {
+			throw new IllegalArgumentException(
+					"Size and concurrency level must be positive");
+		}
+		int stripes = powerOfTwoAtLeast(concurrencyLevel);
+		locks = new ReentrantLock[stripes];
+		for (int i = 0; i < stripes; i++) {
+			locks[i] = new ReentrantLock();
+		}
+		this.hashFunction = hashFunction;
+		this.maxLoadFactor = HashTableLProbe.DEFAULT_MAX_LOAD_FACTOR;
+		table = new Table(Math.max(stripes, powerOfTwoAtLeast(size)), stripes,
+				maxLoadFactor);
+	}
+
+	/**
+	 * Map a key to a value, replacing any previous value for the key.
+	 */
+	public void insert(String key, Object value) {
+		int hash = hashFunction.hash(key);
+		Entry entry = new Entry(key, hash, value);
+
+		while (true) {
+			Table t = table;
+			ReentrantLock lock = locks[(hash & t.mask) >>> t.stripeShift];
+			boolean inserted;
+
+			lock.lock();
+			try {
+				// A resize may have replaced the table while we waited.
+				if (t != table) {
+					continue;
+				}
+				inserted = insert(t, entry);
+			} finally {
+				lock.unlock();
+			}
+
+			if (!inserted || t.occupied.get() > t.resizeThreshold) {
+				resize(t);
+			}
+			if (inserted) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Insert or replace entry in t, with its home stripe locked. Returns false
+	 * if the probe sequence found no free slot at all.
+	 */
+	private boolean insert(Table t, Entry entry) {
+		AtomicReferenceArray<Entry> slots = t.slots;
+
+		probe: while (true) {
+			int index = entry.hash & t.mask;
+			int firstTombstone = -1;
+
+			for (int count = 0; count <= t.mask; count++) {
+				Entry e = slots.get(index);
+
+				if (e == null) {
+					// The key is absent: take the first tombstone passed, or
+					// this empty slot. Other stripes may be claiming it too.
+					if (firstTombstone >= 0) {
+						if (!slots.compareAndSet(firstTombstone, TOMBSTONE,
+								entry)) {
+							continue probe;
+						}
+					} else {
+						if (!slots.compareAndSet(index, null, entry)) {
+							continue probe;
+						}
+						t.occupied.incrementAndGet();
+					}
+					size.increment();
+					return true;
+				} else if (e == TOMBSTONE) {
+					if (firstTombstone < 0) {
+						firstTombstone = index;
+					}
+				} else if (e.hash == entry.hash && e.key.equals(entry.key)) {
+					// Only holders of this key's stripe write this slot.
+					slots.set(index, entry);
+					return true;
+				}
+				index = (index + 1) & t.mask;
+			}
+
+			if (firstTombstone >= 0) {
+				if (!slots.compareAndSet(firstTombstone, TOMBSTONE, entry)) {
+					continue probe;
+				}
+				size.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Find the value which is mapped to a key. Never blocks.
+	 */
+	public Object retrieve(String key) throws KeyNotFoundInTableException {
+		int hash = hashFunction.hash(key);
+		Table t = table;
+		AtomicReferenceArray<Entry> slots = t.slots;
+		int index = hash & t.mask;
+
+		for (int count = 0; count <= t.mask; count++) {
+			Entry e = slots.get(index);
+			if (e == null) {
+				break;
+			}
+			if (e != TOMBSTONE && e.hash == hash && e.key.equals(key)) {
+				return e.value;
+			}
+			index = (index + 1) & t.mask;
+		}
+		throw new KeyNotFoundInTableException();
+	}
+
+	/**
+	 * Delete a mapping for a key.
+	 */
+	public void delete(String key) throws KeyNotFoundInTableException {
+		int hash = hashFunction.hash(key);
+
+		while (true) {
+			Table t = table;
+			ReentrantLock lock = locks[(hash & t.mask) >>> t.stripeShift];
+
+			lock.lock();
+			try {
+				if (t != table) {
+					continue;
+				}
+
+				AtomicReferenceArray<Entry> slots = t.slots;
+				int index = hash & t.mask;
+				for (int count = 0; count <= t.mask; count++) {
+					Entry e = slots.get(index);
+					if (e == null) {
+						break;
+					}
+					if (e != TOMBSTONE && e.hash == hash && e.key.equals(key)) {
+						slots.set(index, TOMBSTONE);
+						size.decrement();
+						return;
+					}
+					index = (index + 1) & t.mask;
+				}
+				throw new KeyNotFoundInTableException();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of mappings in the hash table. While writers are
+	 * active this is an estimate.
+	 */
+	public int size() {
+		return size.intValue();
+	}
+
+	/**
+	 * Rebuild the table once it has passed its maximum load, with every
+	 * stripe locked. Live entries are copied into a new array (twice the size
+	 * unless most occupied slots were tombstones) which is then published.
+	 */
+	private void resize(Table expected) {
+		for (int i = 0; i < locks.length; i++) {
+			locks[i].lock();
+		}
+		try {
+			// Another thread may already have resized.
+			if (table != expected) {
+				return;
+			}
+
+			int live = size.intValue();
+			int capacity = expected.mask + 1;
+			if (live + 1 > capacity * maxLoadFactor / 2) {
+				capacity *= 2;
+			}
+
+			Table t = new Table(capacity, locks.length, maxLoadFactor);
+			AtomicReferenceArray<Entry> oldSlots = expected.slots;
+			int occupied = 0;
+			for (int i = 0; i <= expected.mask; i++) {
+				Entry e = oldSlots.get(i);
+				if (e != null && e != TOMBSTONE) {
+					int index = e.hash & t.mask;
+					while (t.slots.get(index) != null) {
+						index = (index + 1) & t.mask;
+					}
+					t.slots.lazySet(index, e);
+					occupied += 1;
+				}
+			}
+			t.occupied.set(occupied);
+
+			// The volatile write publishes the fully built array.
+			table = t;
+		} finally {
+			for (int i = locks.length - 1; i >= 0; i--) {
+				locks[i].unlock();
+			}
+		}
+	}
+
+	private static int powerOfTwoAtLeast(int n) {
+		if (n > 1 << 30) {
+			throw new IllegalArgumentException("Table too large: " + n);
+		}
+		return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+	}
+
+	/**
+	 * Return a textual representation of the hash table.
+	 */
+	public String toString() {
+		AtomicReferenceArray<Entry> slots = table.slots;
+		StringBuilder str = new StringBuilder();
+		for (int i = 0; i < slots.length(); ++i) {
+			Entry e = slots.get(i);
+			str.append(i).append(": ");
+			if (e == TOMBSTONE) {
+				str.append("Tombstone\n");
+			} else if (e != null) {
+				str.append(e.key).append(" ").append(e.value).append("\n");
+			} else {
+				str.append("null\n");
+			}
+		}
+		return str.toString();
+	}
+}
@@ -0,0 +1,116 @@
+package HashTables;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how ConcurrentHashTableLProbe scales with the number of threads,
+ * against a HashTableLProbe behind one global lock. Each thread runs a mix of
+ * 90% retrieves and 10% inserts over a shared key space for a fixed time.
+ * Pass the largest thread count as the first argument (default 64).
+ */
+public class ConcurrentHashTableLProbeBenchmark {
+
+	private static final int KEYS = 1 << 16;
+	private static final long RUN_MILLIS = 1000;
+
+	/**
+	 * The operations exercised by the benchmark, so that both tables can be
+	 * driven by the same loop.
+	 */
+	private interface Target {
+		void insert(String key, Object value) throws Exception;
+
+		Object retrieve(String key) throws Exception;
+	}
+
+	public static void main(String[] args) throws Exception {
+		int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+
+		final String[] keys = new String[KEYS];
+		for (int i = 0; i < KEYS; i++) {
+			keys[i] = "id-" + i;
+		}
+
+		System.out.println("threads  global lock (Mops/s)  striped (Mops/s)");
+		for (int threads = 1; threads <= maxThreads; threads *= 2) {
+			final HashTableLProbe plain = new HashTableLProbe(KEYS * 2,
+					HashFunctions.MURMUR3);
+			final ConcurrentHashTableLProbe striped = new ConcurrentHashTableLProbe(
+					KEYS * 2);
+			for (int i = 0; i < KEYS; i++) {
+				plain.insert(keys[i], new Integer(i));
+				striped.insert(keys[i], new Integer(i));
+			}
+
+			double locked = run(threads, keys, new Target() {
+				public synchronized void insert(String key, Object value)
+						throws Exception {
+					// HashTableLProbe.insert() adds duplicates, so delete first.
+					plain.delete(key);
+					plain.insert(key, value);
+				}
+
+				public synchronized Object retrieve(String key) throws Exception {
+					return plain.retrieve(key);
+				}
+			});
+			double concurrent = run(threads, keys, new Target() {
+				public void insert(String key, Object value) {
+					striped.insert(key, value);
+				}
+
+				public Object retrieve(String key) throws Exception {
+					return striped.retrieve(key);
+				}
+			});
+
+			System.out.printf("%7d  %20.2f  %16.2f%n", threads, locked,
+					concurrent);
+		}
+	}
+
+	/**
+	 * Run the mixed workload on the given number of threads and return the
+	 * throughput in millions of operations per second.
+	 */
+	private static double run(int threads, final String[] keys,
+			final Target target) throws InterruptedException {
+		final AtomicLong operations = new AtomicLong();
+		final long deadline = System.currentTimeMillis() + RUN_MILLIS;
+		Thread[] workers = new Thread[threads];
+
+		for (int t = 0; t < threads; t++) {
+			final int seed = t;
+			workers[t] = new Thread(new Runnable() {
+				public void run() {
+					Random random = new Random(seed);
+					long done = 0;
+					try {
+						while ((done & 1023) != 0
+								|| System.currentTimeMillis() < deadline) {
+							int i = random.nextInt(KEYS);
+							if (random.nextInt(10) == 0) {
+								target.insert(keys[i], new Integer(i));
+							} else {
+								target.retrieve(keys[i]);
+							}
+							done += 1;
+						}
+					} catch (Exception e) {
+						e.printStackTrace();
+					}
+					operations.addAndGet(done);
+				}
+			});
+			workers[t].start();
+		}
+
+		long start = System.nanoTime();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		return operations.get() / seconds / 1e6;
+	}
+}
@@ -0,0 +1,40 @@
+package HashTables;
+
+public class ConcurrentHashTableLProbeTest {
+  public static void main(String[] args) throws InterruptedException {
+    final ConcurrentHashTableLProbe myLUT = new ConcurrentHashTableLProbe(4);
+
+    // Several writers and readers share the table while it resizes.
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      final int id = t;
+      threads[t] = new Thread(new Runnable() {
+        public void run() {
+          for (int i = 0; i < 1000; i++) {
+            myLUT.insert("Thread" + id + "Key" + i, new Integer(i));
+          }
+          for (int i = 0; i < 1000; i += 2) {
+            try {
+              myLUT.delete("Thread" + id + "Key" + i);
+            } catch (KeyNotFoundInTableException e) {
+              System.out.println(e);
+            }
+          }
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    System.out.println("Size: " + myLUT.size());
+
+    try {
+      myLUT.insert("Thread2Key501", new Integer(-1));
+      System.out.println("Thread2Key501 -> " + myLUT.retrieve("Thread2Key501"));
+      System.out.println("Thread3Key500 -> " + myLUT.retrieve("Thread3Key500"));
+    } catch (KeyNotFoundInTableException e) {
+      System.out.println(e);
+    }
+  }
+}
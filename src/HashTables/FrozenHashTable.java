@@ -0,0 +1,93 @@
+package HashTables;
+
+/**
+ * This is an immutable hash table built by HashTableLProbe.freeze() for
+ * tables that are only read once filled. The keys, values and key hashes are
+ * packed into three parallel arrays with no entry objects and no tombstones.
+ * The capacity is a power of two at most half full, so lookups reduce the
+ * hash by masking and stop after a short linear probe; the stored hash is
+ * compared before the key itself.
+ * 
+ * The frozen table always uses MurmurHash3 whatever the hash function of the
+ * table it was built from. If that table held several mappings for the same
+ * key, only one of them is kept.
+ * 
+ * @author samistart
+ *
+ */
+public final class FrozenHashTable {
+
+	private static final HashFunction HASH = HashFunctions.MURMUR3;
+
+	private final String[] keys;
+	private final Object[] values;
+	private final int[] hashes;
+	private final int mask;
+	private final int size;
+
+	/**
+	 * Builds the table from the first n keys and values.
+	 */
+	FrozenHashTable(String[] keys, Object[] values, int n) {
+		int capacity = Integer.highestOneBit(Math.max(1, 2 * n - 1)) << 1;
+		this.keys = new String[capacity];
+		this.values = new Object[capacity];
+		hashes = new int[capacity];
+		mask = capacity - 1;
+
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			int h = HASH.hash(keys[i]);
+			int index = h & mask;
+			while (this.keys[index] != null
+					&& !(hashes[index] == h && this.keys[index].equals(keys[i]))) {
+				index = (index + 1) & mask;
+			}
+			if (this.keys[index] == null) {
+				this.keys[index] = keys[i];
+				this.values[index] = values[i];
+				hashes[index] = h;
+				count += 1;
+			}
+		}
+		size = count;
+	}
+
+	/**
+	 * Find the value which is mapped to a key.
+	 */
+	public Object retrieve(String key) throws KeyNotFoundInTableException {
+		int h = HASH.hash(key);
+		int index = h & mask;
+		String k;
+
+		while ((k = keys[index]) != null) {
+			if (hashes[index] == h && k.equals(key)) {
+				return values[index];
+			}
+			index = (index + 1) & mask;
+		}
+		throw new KeyNotFoundInTableException();
+	}
+
+	/**
+	 * Returns the number of mappings in the hash table.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Return a textual representation of the hash table.
+	 */
+	public String toString() {
+		StringBuilder str = new StringBuilder();
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != null) {
+				str.append(i).append(": ").append(keys[i]).append(" ")
+						.append(values[i]).append("\n");
+			}
+		}
+		return str.toString();
+	}
+}
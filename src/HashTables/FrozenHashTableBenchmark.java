@@ -0,0 +1,81 @@
+package HashTables;
+
+import java.util.Random;
+
+/**
+ * Compares lookups in a HashTableLProbe with lookups in the FrozenHashTable
+ * made from it, and the heap each of them occupies. Every structure is
+ * measured twice and the second round is reported, once the JIT has
+ * settled.
+ */
+public class FrozenHashTableBenchmark {
+
+	private static final int KEYS = 1 << 20;
+	private static final int LOOKUPS = 2000000;
+
+	public static void main(String[] args) throws Exception {
+		// The keys and values are made up front, so that only the structures
+		// themselves are counted in the heap figures.
+		String[] keys = new String[KEYS];
+		Integer[] values = new Integer[KEYS];
+		for (int i = 0; i < KEYS; i++) {
+			keys[i] = "id-" + i;
+			values[i] = new Integer(i);
+		}
+
+		Random random = new Random(42);
+		int[] order = new int[LOOKUPS];
+		for (int i = 0; i < LOOKUPS; i++) {
+			order[i] = random.nextInt(KEYS);
+		}
+
+		long before = usedMemory();
+		HashTableLProbe table = new HashTableLProbe(1024,
+				HashTableLProbe.DEFAULT_MIN_LOAD_FACTOR,
+				HashTableLProbe.DEFAULT_MAX_LOAD_FACTOR, HashFunctions.MURMUR3);
+		for (int i = 0; i < KEYS; i++) {
+			table.insert(keys[i], values[i]);
+		}
+		long tableBytes = usedMemory() - before;
+
+		before = usedMemory();
+		FrozenHashTable frozen = table.freeze();
+		long frozenBytes = usedMemory() - before;
+
+		double tableNanos = 0;
+		double frozenNanos = 0;
+		for (int round = 0; round < 2; round++) {
+			long start = System.nanoTime();
+			long checksum = 0;
+			for (int i = 0; i < LOOKUPS; i++) {
+				checksum += (Integer) table.retrieve(keys[order[i]]);
+			}
+			tableNanos = (double) (System.nanoTime() - start) / LOOKUPS;
+
+			start = System.nanoTime();
+			for (int i = 0; i < LOOKUPS; i++) {
+				checksum -= (Integer) frozen.retrieve(keys[order[i]]);
+			}
+			frozenNanos = (double) (System.nanoTime() - start) / LOOKUPS;
+
+			if (checksum != 0) {
+				throw new IllegalStateException("Lookups disagree");
+			}
+		}
+
+		System.out.println(KEYS + " keys, " + LOOKUPS + " random lookups");
+		System.out.println("                ns/lookup   heap (MB)");
+		System.out.printf("HashTableLProbe  %9.1f %11.1f%n", tableNanos,
+				tableBytes / 1e6);
+		System.out.printf("FrozenHashTable  %9.1f %11.1f%n", frozenNanos,
+				frozenBytes / 1e6);
+	}
+
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
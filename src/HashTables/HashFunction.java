@@ -0,0 +1,17 @@
+package HashTables;
+
+/**
+ * A strategy for hashing the string keys of a hash table. The table maps the
+ * returned value into its own range, so implementations should spread their
+ * output over all 32 bits.
+ * 
+ * @author samistart
+ *
+ */
+public interface HashFunction {
+
+	/**
+	 * Compute a 32 bit hash over a key.
+	 */
+	int hash(String key);
+}
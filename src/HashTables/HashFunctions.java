@@ -0,0 +1,122 @@
+package HashTables;
+
+/**
+ * Built-in hash functions for the hash tables in this package.
+ * 
+ * CHAR_SUM is the original h1() of HashTableLProbe: it is kept for
+ * compatibility but maps anagrams and short keys onto the same few values.
+ * POLYNOMIAL weights every character by its position, MURMUR3 is the 32 bit
+ * MurmurHash3 function over the UTF-16 code units of the key (the default
+ * of HashTableLProbe) and seeded() returns a MurmurHash3 variant with a
+ * caller-chosen seed.
+ * 
+ * @author samistart
+ *
+ */
+public final class HashFunctions {
+
+	private HashFunctions() {
+	}
+
+	/**
+	 * Sum of the character codes.
+	 */
+	public static final HashFunction CHAR_SUM = new HashFunction() {
+		public int hash(String key) {
+			int n = 0;
+			for (int i = 0; i < key.length(); i++) {
+				n += (int) key.charAt(i);
+			}
+			return n;
+		}
+	};
+
+	/**
+	 * Polynomial hash with multiplier 31, followed by a final mix so that the
+	 * low bits are usable with power-of-two tables.
+	 */
+	public static final HashFunction POLYNOMIAL = new HashFunction() {
+		public int hash(String key) {
+			int n = 0;
+			for (int i = 0; i < key.length(); i++) {
+				n = 31 * n + key.charAt(i);
+			}
+			return mix(n);
+		}
+	};
+
+	/**
+	 * MurmurHash3 (32 bit) with seed 0.
+	 */
+	public static final HashFunction MURMUR3 = seeded(0);
+
+	/**
+	 * MurmurHash3 (32 bit) with the given seed. Tables that hash untrusted
+	 * keys can pick a random seed so that collisions cannot be precomputed.
+	 */
+	public static HashFunction seeded(final int seed) {
+		return new HashFunction() {
+			public int hash(String key) {
+				return murmur3(key, seed);
+			}
+		};
+	}
+
+	/**
+	 * The MurmurHash3 finalisation step. Every input bit affects every output
+	 * bit, which makes it suitable for spreading integer keys as well.
+	 */
+	public static int mix(int h) {
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h;
+	}
+
+	/**
+	 * The 64 bit finalisation step of MurmurHash3 (fmix64).
+	 */
+	public static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/**
+	 * MurmurHash3 over the characters of a string, two characters per 32 bit
+	 * block.
+	 */
+	private static int murmur3(String key, int seed) {
+		final int c1 = 0xcc9e2d51;
+		final int c2 = 0x1b873593;
+		int h = seed;
+		int length = key.length();
+
+		for (int i = 1; i < length; i += 2) {
+			int k = key.charAt(i - 1) | (key.charAt(i) << 16);
+			k *= c1;
+			k = Integer.rotateLeft(k, 15);
+			k *= c2;
+			h ^= k;
+			h = Integer.rotateLeft(h, 13);
+			h = h * 5 + 0xe6546b64;
+		}
+
+		// Odd length: mix in the last character on its own.
+		if ((length & 1) == 1) {
+			int k = key.charAt(length - 1);
+			k *= c1;
+			k = Integer.rotateLeft(k, 15);
+			k *= c2;
+			h ^= k;
+		}
+
+		h ^= 2 * length;
+		return mix(h);
+	}
+}
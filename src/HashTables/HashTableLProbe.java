@@ -27,22 +27,68 @@ class TableOverflowException extends Exception {
  * tomb stone and delete2() sets them to null and rehashes succeeding entries.
  * There is a resize function which rehashes the entire table to an area of size m.
  * 
+ * In ROBIN_HOOD mode an insert takes the slot of any entry that is closer to
+ * its home slot than the new entry is, which keeps probe lengths short and
+ * even. Both delete methods then use backward-shift deletion: the following
+ * entries of the cluster move back one slot, so no tombstones are left.
+ * 
+ * The table also resizes itself when the load factor leaves the range given
+ * by minLoadFactor and maxLoadFactor. That rehash is incremental: the old
+ * array is kept alongside the new one and every subsequent operation moves a
+ * few of its slots across, so no single call pays for the whole rehash.
+ * 
+ * Keys are hashed by a pluggable HashFunction (see HashFunctions), MURMUR3
+ * unless another is given; CHAR_SUM remains available for callers that rely
+ * on the original slot layout. The constructors round the capacity up to a
+ * power of two, so the hash is reduced to an index by masking rather than by
+ * the % modulus, and automatic resizes keep it that way. Only an explicit
+ * resize() to another size brings back the modulus.
+ * 
+ * A table that is only read once filled can be turned into a compact,
+ * faster FrozenHashTable with freeze().
+ * 
  * @date 20th February 2015
  * @author samistart
  *
  */
 public class HashTableLProbe {
 
+	/**
+	 * Load factors used by the constructors that do not specify them.
+	 */
+	public static final double DEFAULT_MIN_LOAD_FACTOR = 0.1;
+	public static final double DEFAULT_MAX_LOAD_FACTOR = 0.75;
+
+	/**
+	 * Smallest number of old slots moved across by each operation during an
+	 * incremental resize.
+	 */
+	private static final int MIGRATION_STEP = 4;
+
+	/**
+	 * How inserts choose a slot and how deletes clean up after themselves.
+	 */
+	public enum Mode {
+		LINEAR, ROBIN_HOOD
+	}
+
 	/**
 	 * Entries in the hash table arry.
 	 */
 	protected class Entry {
 		protected String key;
 		protected Object value;
+		// The full hash of the key, so that rehashing never recomputes it.
+		protected int hash;
 
 		public Entry(String k, Object v) {
+			this(k, v, hashFunction.hash(k));
+		}
+
+		public Entry(String k, Object v, int h) {
 			key = k;
 			value = v;
+			hash = h;
 		}
 	}
 
@@ -52,44 +98,146 @@ public class HashTableLProbe {
 	protected Entry[] entries;
 
 	/**
-	 * Compute a hash over a string and map it into a given range.
+	 * Marks a slot whose entry was deleted in LINEAR mode. It is compared by
+	 * identity, so no real key can be mistaken for it.
 	 */
-	private int h1(String key, int M) {
-		int n = 0;
+	protected final Entry tombstone = new Entry(null, null, 0);
+
+	/**
+	 * The array being drained into entries while an incremental resize is in
+	 * progress, null otherwise. Slots below migrateIndex have been moved.
+	 */
+	protected Entry[] oldEntries;
+	private int migrateIndex;
+	private int migrationStep;
+
+	// Number of live mappings (in both arrays) and number of non-null slots
+	// in entries (live mappings plus tombstones).
+	private int size;
+	private int occupied;
+
+	private final HashFunction hashFunction;
 
-		for (int i = 0; i < key.length(); i++) {
-			n += (int) key.charAt(i);
+	private final Mode mode;
+
+	private final double minLoadFactor;
+	private final double maxLoadFactor;
+
+	// The table never shrinks below the capacity it was created with.
+	private final int minCapacity;
+
+	/**
+	 * Map a hash into a given range. Power-of-two ranges are masked, others
+	 * use the modulus.
+	 */
+	private int h1(int hash, int M) {
+		if ((M & (M - 1)) == 0) {
+			return hash & (M - 1);
 		}
 
-		return n % M;
+		return Math.floorMod(hash, M);
 	}
 
 	/**
 	 * Default constructor.
 	 */
 	public HashTableLProbe() {
-		entries = new Entry[50];
+		this(64);
 	}
 
 	/**
-	 * Constructor for a given hash table size.
+	 * Constructor for a given hash table size, rounded up to a power of two.
 	 */
 	public HashTableLProbe(int size) {
+		this(size, DEFAULT_MIN_LOAD_FACTOR, DEFAULT_MAX_LOAD_FACTOR);
+	}
+
+	/**
+	 * Constructor for a given hash table size and load factor range. The
+	 * table grows once more than maxLoadFactor of its slots are in use and
+	 * shrinks once fewer than minLoadFactor of them hold live entries.
+	 */
+	public HashTableLProbe(int size, double minLoadFactor, double maxLoadFactor) {
+		this(size, minLoadFactor, maxLoadFactor, HashFunctions.MURMUR3);
+	}
+
+	/**
+	 * Constructor for a given hash table size and hash function.
+	 */
+	public HashTableLProbe(int size, HashFunction hashFunction) {
+		this(size, DEFAULT_MIN_LOAD_FACTOR, DEFAULT_MAX_LOAD_FACTOR,
+				hashFunction);
+	}
+
+	/**
+	 * Constructor for a given hash table size, load factor range and hash
+	 * function.
+	 */
+	public HashTableLProbe(int size, double minLoadFactor,
+			double maxLoadFactor, HashFunction hashFunction) {
+		this(size, minLoadFactor, maxLoadFactor, hashFunction, Mode.LINEAR);
+	}
+
+	/**
+	 * Constructor for a given hash table size, load factor range, hash
+	 * function and probing mode.
+	 */
+	public HashTableLProbe(int size, double minLoadFactor,
+			double maxLoadFactor, HashFunction hashFunction, Mode mode) {
+		if (size < 1) {
+			throw new IllegalArgumentException("Table size must be positive");
+		}
+		if (minLoadFactor < 0 || minLoadFactor >= maxLoadFactor
+				|| maxLoadFactor > 1) {
+			throw new IllegalArgumentException(
+					"Load factors must satisfy 0 <= min < max <= 1");
+		}
+		if (size > 1 << 30) {
+			throw new IllegalArgumentException("Table size too large");
+		}
+		size = Math.max(1, Integer.highestOneBit(size - 1) << 1);
 		entries = new Entry[size];
+		minCapacity = size;
+		this.hashFunction = hashFunction;
+		this.mode = mode;
+		this.minLoadFactor = minLoadFactor;
+		this.maxLoadFactor = maxLoadFactor;
 	}
 
 	/**
 	 * Map a key to a value (insert into the hash table).
 	 */
 	public void insert(String key, Object value) throws TableOverflowException {
+		migrateStep();
+
+		// Grow before the new entry would take us over the maximum load.
+		// A resize that is already running is completed first.
+		if (occupied + 1 > maxLoadFactor * entries.length) {
+			finishMigration();
+			startResize(capacityFor(size + 1));
+		}
+
+		place(new Entry(key, value));
+		size += 1;
+	}
+
+	/**
+	 * Put an entry into the first free slot of its probe sequence in entries.
+	 */
+	private void place(Entry entry) throws TableOverflowException {
+		if (mode == Mode.ROBIN_HOOD) {
+			placeRobinHood(entry);
+			return;
+		}
+
 		// Compute the hash value
-		int index = h1(key, entries.length);
+		int index = h1(entry.hash, entries.length);
 
 		// Probe linearly to find empty slot.
 		int count = 0;
 
 		while (entries[index] != null
-				&& (!entries[index].key.equals("Tombstone"))
+				&& entries[index] != tombstone
 				&& count != entries.length) {
 			index = (index + 1) % entries.length;
 			count += 1;
@@ -98,77 +246,219 @@ public class HashTableLProbe {
 		if (count == entries.length) {
 			throw new TableOverflowException();
 		} else {
-			entries[index] = new Entry(key, value);
+			if (entries[index] == null) {
+				occupied += 1;
+			}
+			entries[index] = entry;
+		}
+	}
+
+	/**
+	 * Robin Hood insertion: walk the probe sequence and swap the entry being
+	 * placed with any resident that is closer to its home slot, carrying the
+	 * displaced resident on until an empty slot is found.
+	 */
+	private void placeRobinHood(Entry entry) throws TableOverflowException {
+		// Check up front, as swaps cannot be undone once started.
+		if (occupied == entries.length) {
+			throw new TableOverflowException();
+		}
+
+		int index = h1(entry.hash, entries.length);
+		int distance = 0;
+
+		while (entries[index] != null) {
+			int residentDistance = distance(entries[index], index);
+			if (residentDistance < distance) {
+				Entry resident = entries[index];
+				entries[index] = entry;
+				entry = resident;
+				distance = residentDistance;
+			}
+			index = (index + 1) % entries.length;
+			distance += 1;
 		}
+
+		entries[index] = entry;
+		occupied += 1;
+	}
+
+	/**
+	 * Number of slots between an entry's home slot and the slot it is in.
+	 */
+	private int distance(Entry entry, int index) {
+		return Math.floorMod(index - h1(entry.hash, entries.length),
+				entries.length);
 	}
 
 	/**
 	 * Find the value which is mapped to a key.
 	 */
 	public Object retrieve(String key) throws KeyNotFoundInTableException {
-		int index = find(key);
+		migrateStep();
 
-		return entries[index].value;
+		int index = indexOf(entries, key);
+		if (index >= 0) {
+			return entries[index].value;
+		}
+
+		index = find(oldEntries, key);
+		return oldEntries[index].value;
 	}
 
 	/**
 	 * Delete a mapping for a key.
 	 */
 	public void delete(String key) throws KeyNotFoundInTableException {
+		migrateStep();
+
 		// Have extracted this find method that is common to both delete
 		// functions
-		int index = find(key);
-		// Mark the key of the entry to be deleted with a tombstone
-		entries[index].key = "Tombstone";
+		Entry[] table = entries;
+		int index = indexOf(entries, key);
+		if (index < 0) {
+			table = oldEntries;
+			index = find(oldEntries, key);
+		} else if (mode == Mode.ROBIN_HOOD) {
+			backwardShift(index);
+			size -= 1;
+			shrinkIfSparse();
+			return;
+		}
+		// Replace the entry to be deleted with a tombstone
+		table[index] = tombstone;
+		size -= 1;
+
+		shrinkIfSparse();
 	}
 
-	private int find(String key) throws KeyNotFoundInTableException {
+	private int find(Entry[] table, String key)
+			throws KeyNotFoundInTableException {
+		int index = indexOf(table, key);
+
+		if (index < 0) {
+			throw new KeyNotFoundInTableException();
+		}
+		return index;
+	}
+
+	/**
+	 * Return the slot holding key in the given array, or -1 if there is none.
+	 * Slots of oldEntries that have already been migrated are ignored.
+	 */
+	private int indexOf(Entry[] table, String key) {
+		if (table == null) {
+			return -1;
+		}
+
 		// Compute the hash value
-		int index = h1(key, entries.length);
+		int hash = hashFunction.hash(key);
+		int index = h1(hash, table.length);
 
-		// Probe linearly looking for match.
+		// Probe linearly looking for match. The cached hashes are compared
+		// first so that most mismatches skip String.equals().
 		int count = 0;
 
-		while (entries[index] != null && (!entries[index].key.equals(key))
-				&& count != entries.length) {
-			index = (index + 1) % entries.length;
+		while (table[index] != null
+				&& (table[index] == tombstone || table[index].hash != hash || !table[index].key
+						.equals(key)) && count != table.length) {
+			// In Robin Hood order a resident closer to home than we are
+			// means the key is absent.
+			if (mode == Mode.ROBIN_HOOD
+					&& table[index] != tombstone
+					&& Math.floorMod(index - h1(table[index].hash, table.length),
+							table.length) < count) {
+				return -1;
+			}
+			index = (index + 1) % table.length;
 			count += 1;
 		}
 
-		if (entries[index] == null || count == entries.length) {
-			throw new KeyNotFoundInTableException();
+		if (table[index] == null || count == table.length
+				|| (table == oldEntries && index < migrateIndex)) {
+			return -1;
 		}
 		return index;
 	}
 
 	/**
 	 * Delete a mapping for a key without creating a tombstone. This sets the
-	 * entry to null and rehashes the succeeding entries instead.
+	 * entry to null and rehashes the succeeding entries instead. In
+	 * ROBIN_HOOD mode this is the same as delete().
 	 */
 	public void delete2(String key) throws KeyNotFoundInTableException {
+		migrateStep();
+
+		int index = indexOf(entries, key);
+
+		// Entries still waiting in the old array are about to be dropped
+		// with it, so a tombstone there costs nothing.
+		if (index < 0) {
+			index = find(oldEntries, key);
+			oldEntries[index] = tombstone;
+			size -= 1;
+			shrinkIfSparse();
+			return;
+		}
+
+		if (mode == Mode.ROBIN_HOOD) {
+			backwardShift(index);
+			size -= 1;
+			shrinkIfSparse();
+			return;
+		}
+
 		// Like delete, except that the entry is not replaced by a tombstone.
 		// Instead, the entry will be deleted (set to null).
 		// This requires a cleanup and rehashing all succeeding entries.
-		int index = find(key);
-
 		entries[index] = null;
+		occupied -= 1;
+		size -= 1;
 
-		for (int i = index + 1; i < entries.length; i++) {
-			Entry temp;
-			if (entries[i] != null) {
-				temp = entries[i];
-				entries[i] = null;
+		// The cluster may wrap around the end of the array. Tombstones in it
+		// are simply dropped, as every entry after them is placed afresh.
+		int i = (index + 1) % entries.length;
+		for (int count = 1; count < entries.length && entries[i] != null; count++) {
+			Entry temp = entries[i];
+			entries[i] = null;
+			occupied -= 1;
+			if (temp != tombstone) {
 				try {
-					insert(temp.key, temp.value);
+					place(temp);
 				} catch (TableOverflowException e) {
 					// TODO Auto-generated catch block
 					e.printStackTrace();
 				}
-			} else {
-				return;
 			}
+			i = (i + 1) % entries.length;
 		}
 
+		shrinkIfSparse();
+	}
+
+	/**
+	 * Backward-shift deletion for ROBIN_HOOD mode: empty the slot at index
+	 * and move each following entry of the cluster back by one, stopping at
+	 * an empty slot or at an entry that is already in its home slot.
+	 */
+	private void backwardShift(int index) {
+		int next = (index + 1) % entries.length;
+
+		while (entries[next] != null && distance(entries[next], next) > 0) {
+			entries[index] = entries[next];
+			index = next;
+			next = (next + 1) % entries.length;
+		}
+
+		entries[index] = null;
+		occupied -= 1;
+	}
+
+	/**
+	 * Returns the number of mappings in the hash table.
+	 */
+	public int size() {
+		return size;
 	}
 
 	/**
@@ -179,17 +469,24 @@ public class HashTableLProbe {
 	 * exception will be thrown.
 	 */
 	public void resize(int m) {
+		// An incremental resize in progress is completed first so that all
+		// entries live in a single array.
+		finishMigration();
+
 		// Replaces the entries array with a new one in which all
 		// old entries are inserted fresh (`rehashing').
 		Entry[] oldTable = entries;
+		int oldOccupied = occupied;
 
 		entries = new Entry[m];
+		occupied = 0;
 		for (int i = 0; i < oldTable.length; i++) {
-			if (oldTable[i] != null) {
+			if (oldTable[i] != null && oldTable[i] != tombstone) {
 				try {
-					insert(oldTable[i].key, oldTable[i].value);
+					place(oldTable[i]);
 				} catch (TableOverflowException e) {
 					entries = oldTable;
+					occupied = oldOccupied;
 					System.err
 							.println("Cannot rehash due to table overflow. Table was not resized and remains unchanged.");
 					e.printStackTrace();
@@ -199,6 +496,156 @@ public class HashTableLProbe {
 		}
 	}
 
+	/**
+	 * Shrink the table once its live entries fall below the minimum load.
+	 * Shrinking never starts while another resize is still running.
+	 */
+	private void shrinkIfSparse() {
+		if (oldEntries == null && entries.length > minCapacity
+				&& size < minLoadFactor * entries.length) {
+			startResize(capacityFor(size));
+		}
+	}
+
+	/**
+	 * Power-of-two capacity that puts n entries at or below half way between
+	 * the two load factors.
+	 */
+	private int capacityFor(int n) {
+		double target = (minLoadFactor + maxLoadFactor) / 2;
+		int m = Math.max(minCapacity, (int) Math.ceil(n / target) + 1);
+		return Integer.highestOneBit(m - 1) << 1;
+	}
+
+	/**
+	 * Begin an incremental resize to capacity m. The current array becomes
+	 * oldEntries and is drained by later calls to migrateStep().
+	 */
+	private void startResize(int m) {
+		oldEntries = entries;
+		migrateIndex = 0;
+		entries = new Entry[m];
+		occupied = 0;
+
+		// Move enough slots per operation that the old array is empty well
+		// before inserts could push the new one over its maximum load.
+		int headroom = (int) (maxLoadFactor * m) - size;
+		int operations = Math.max(1, headroom / 2);
+		migrationStep = Math.max(MIGRATION_STEP,
+				(oldEntries.length + operations - 1) / operations);
+	}
+
+	/**
+	 * Move the next few slots of oldEntries into entries.
+	 */
+	private void migrateStep() {
+		if (oldEntries != null) {
+			migrate(migrationStep);
+		}
+	}
+
+	/**
+	 * Move all remaining slots of oldEntries into entries.
+	 */
+	private void finishMigration() {
+		if (oldEntries != null) {
+			migrate(oldEntries.length);
+		}
+	}
+
+	private void migrate(int slots) {
+		int end = Math.min(oldEntries.length, migrateIndex + slots);
+
+		// The old array is left intact so that its probe sequences still
+		// work for lookups; indexOf() ignores slots below migrateIndex.
+		for (; migrateIndex < end; migrateIndex++) {
+			Entry e = oldEntries[migrateIndex];
+			if (e != null && e != tombstone) {
+				try {
+					place(e);
+				} catch (TableOverflowException ex) {
+					// Cannot happen: the new array is sized for every live
+					// entry plus the inserts made while migrating.
+					throw new IllegalStateException(ex);
+				}
+			}
+		}
+
+		if (migrateIndex == oldEntries.length) {
+			oldEntries = null;
+		}
+	}
+
+	/**
+	 * Report the cluster and probe length statistics of the table. Any
+	 * incremental resize still in progress is completed first.
+	 */
+	public HashTableStatistics statistics() {
+		finishMigration();
+
+		int m = entries.length;
+
+		// Start scanning just after an empty slot so that a cluster which
+		// wraps around the end of the array is counted once.
+		int start = 0;
+		while (start < m && entries[start] != null) {
+			start += 1;
+		}
+
+		int clusters = 0;
+		int maxCluster = 0;
+		int run = 0;
+		long occupiedSlots = 0;
+		long totalProbe = 0;
+		int maxProbe = 0;
+
+		for (int n = 1; n <= m; n++) {
+			int i = (start + n) % m;
+			Entry e = entries[i];
+
+			if (e == null) {
+				run = 0;
+				continue;
+			}
+
+			if (run == 0) {
+				clusters += 1;
+			}
+			run += 1;
+			occupiedSlots += 1;
+			maxCluster = Math.max(maxCluster, run);
+
+			if (e != tombstone) {
+				int probe = Math.floorMod(i - h1(e.hash, m), m) + 1;
+				totalProbe += probe;
+				maxProbe = Math.max(maxProbe, probe);
+			}
+		}
+
+		return new HashTableStatistics(m, size, clusters, maxCluster,
+				occupiedSlots, totalProbe, maxProbe);
+	}
+
+	/**
+	 * Returns an immutable, compact copy of the hash table for read-only use.
+	 * Any incremental resize still in progress is completed first.
+	 */
+	public FrozenHashTable freeze() {
+		finishMigration();
+
+		String[] keys = new String[size];
+		Object[] values = new Object[size];
+		int n = 0;
+		for (Entry e : entries) {
+			if (e != null && e != tombstone) {
+				keys[n] = e.key;
+				values[n] = e.value;
+				n += 1;
+			}
+		}
+		return new FrozenHashTable(keys, values, n);
+	}
+
 	/**
 	 * Return a textual representation of the hash table.
 	 */
@@ -207,12 +654,23 @@ public class HashTableLProbe {
 		for (int i = 0; i < entries.length; ++i) {
 			Entry e = entries[i];
 			str += i + ": ";
-			if (e != null) {
+			if (e == tombstone) {
+				str += "Tombstone\n";
+			} else if (e != null) {
 				str += e.key + " " + e.value + "\n";
 			} else {
 				str += null + "\n";
 			}
 		}
+		// Entries not yet moved across by an incremental resize.
+		if (oldEntries != null) {
+			for (int i = migrateIndex; i < oldEntries.length; ++i) {
+				Entry e = oldEntries[i];
+				if (e != null && e != tombstone) {
+					str += "(resizing) " + e.key + " " + e.value + "\n";
+				}
+			}
+		}
 		return str;
 	}
 }
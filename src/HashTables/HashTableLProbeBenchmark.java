@@ -0,0 +1,71 @@
+package HashTables;
+
+import java.util.Random;
+
+/**
+ * Compares the two LINEAR mode delete strategies with ROBIN_HOOD mode on a
+ * churn-heavy workload: the table is filled, then keys are repeatedly deleted
+ * and replaced by new ones. Reports the churn time, the time to look up every
+ * live key and the probe statistics the table ends up with.
+ */
+public class HashTableLProbeBenchmark {
+
+	private static final int LIVE_KEYS = 100000;
+	private static final int CHURN_OPERATIONS = 1000000;
+
+	public static void main(String[] args) throws Exception {
+		// Run everything twice and report the second round, once the JIT
+		// has settled.
+		for (int round = 0; round < 2; round++) {
+			boolean report = round == 1;
+			run("linear + delete  ", HashTableLProbe.Mode.LINEAR, false, report);
+			run("linear + delete2 ", HashTableLProbe.Mode.LINEAR, true, report);
+			run("robin hood       ", HashTableLProbe.Mode.ROBIN_HOOD, false,
+					report);
+		}
+	}
+
+	private static void run(String name, HashTableLProbe.Mode mode,
+			boolean useDelete2, boolean report) throws Exception {
+		HashTableLProbe table = new HashTableLProbe(1024,
+				HashTableLProbe.DEFAULT_MIN_LOAD_FACTOR,
+				HashTableLProbe.DEFAULT_MAX_LOAD_FACTOR,
+				HashFunctions.MURMUR3, mode);
+		Random random = new Random(42);
+
+		// live[i] holds the id of the key currently stored in position i.
+		int[] live = new int[LIVE_KEYS];
+		for (int i = 0; i < LIVE_KEYS; i++) {
+			live[i] = i;
+			table.insert("id-" + i, new Integer(i));
+		}
+
+		int nextId = LIVE_KEYS;
+		long start = System.nanoTime();
+		for (int op = 0; op < CHURN_OPERATIONS; op++) {
+			int i = random.nextInt(LIVE_KEYS);
+			if (useDelete2) {
+				table.delete2("id-" + live[i]);
+			} else {
+				table.delete("id-" + live[i]);
+			}
+			live[i] = nextId++;
+			table.insert("id-" + live[i], new Integer(live[i]));
+		}
+		long churn = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		long checksum = 0;
+		for (int i = 0; i < LIVE_KEYS; i++) {
+			checksum += (Integer) table.retrieve("id-" + live[i]);
+		}
+		long lookup = System.nanoTime() - start;
+
+		if (report) {
+			System.out.println(name + " churn " + churn / 1000000 + " ms, "
+					+ "lookups " + lookup / 1000000 + " ms (checksum "
+					+ checksum + ")");
+			System.out.println("                  " + table.statistics());
+		}
+	}
+}
@@ -35,6 +35,53 @@ public class HashTableLProbeTest {
       myLUT.resize(13);
       System.out.println(myLUT);
 
+      // The table grows and shrinks by itself as the load factor changes.
+      HashTableLProbe autoLUT = new HashTableLProbe(4);
+      for (int i = 0; i < 1000; i++) {
+        autoLUT.insert("Key" + i, new Integer(i));
+      }
+      System.out.println("Size after inserts: " + autoLUT.size()
+          + ", Key500 -> " + autoLUT.retrieve("Key500"));
+      for (int i = 0; i < 990; i++) {
+        autoLUT.delete("Key" + i);
+      }
+      System.out.println("Size after deletes: " + autoLUT.size()
+          + ", Key995 -> " + autoLUT.retrieve("Key995"));
+
+      // Compare the clustering of the built-in hash functions on keys that
+      // share a long prefix, using a power-of-two table.
+      HashFunction[] functions = { HashFunctions.CHAR_SUM,
+          HashFunctions.POLYNOMIAL, HashFunctions.MURMUR3,
+          HashFunctions.seeded(42) };
+      String[] names = { "char sum", "polynomial", "murmur3", "seeded" };
+      for (int f = 0; f < functions.length; f++) {
+        HashTableLProbe statLUT = new HashTableLProbe(1024, functions[f]);
+        for (int i = 0; i < 600; i++) {
+          statLUT.insert("tenant-eu-west-" + i, new Integer(i));
+        }
+        System.out.println(names[f] + ": " + statLUT.statistics());
+      }
+
+      // Robin Hood mode deletes by shifting entries back, without tombstones.
+      HashTableLProbe robinLUT = new HashTableLProbe(10, 0.1, 0.75,
+          HashFunctions.CHAR_SUM, HashTableLProbe.Mode.ROBIN_HOOD);
+      robinLUT.insert("Priscilla", new Integer(41));
+      robinLUT.insert("Travis", new Integer(34));
+      robinLUT.insert("Tombstone", new Integer(1));
+      robinLUT.insert("Samuel", new Integer(28));
+      robinLUT.insert("Helena", new Integer(39));
+      System.out.println(robinLUT);
+
+      robinLUT.delete("Travis");
+      robinLUT.delete2("Samuel");
+      System.out.println(robinLUT);
+      System.out.println("Tombstone -> " + robinLUT.retrieve("Tombstone"));
+
+      // A table that is only read from now on can be frozen.
+      FrozenHashTable frozenLUT = robinLUT.freeze();
+      System.out.println("Frozen " + frozenLUT.size() + " keys, Helena -> "
+          + frozenLUT.retrieve("Helena"));
+
     } catch (TableOverflowException e) {
       System.out.println(e);
     } catch (KeyNotFoundInTableException e) {
@@ -0,0 +1,73 @@
+package HashTables;
+
+/**
+ * A snapshot of how the entries of a linear probing table are laid out. A
+ * cluster is a maximal run of occupied slots (tombstones included, as probes
+ * have to pass over them); the probe length of an entry is the number of
+ * slots a successful search for it inspects.
+ * 
+ * @author samistart
+ *
+ */
+public class HashTableStatistics {
+
+	private final int capacity;
+	private final int size;
+	private final int clusters;
+	private final int maxClusterLength;
+	private final long occupiedSlots;
+	private final long totalProbeLength;
+	private final int maxProbeLength;
+
+	HashTableStatistics(int capacity, int size, int clusters,
+			int maxClusterLength, long occupiedSlots, long totalProbeLength,
+			int maxProbeLength) {
+		this.capacity = capacity;
+		this.size = size;
+		this.clusters = clusters;
+		this.maxClusterLength = maxClusterLength;
+		this.occupiedSlots = occupiedSlots;
+		this.totalProbeLength = totalProbeLength;
+		this.maxProbeLength = maxProbeLength;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public double getLoadFactor() {
+		return (double) size / capacity;
+	}
+
+	public int getClusters() {
+		return clusters;
+	}
+
+	public int getMaxClusterLength() {
+		return maxClusterLength;
+	}
+
+	public double getMeanClusterLength() {
+		return clusters == 0 ? 0 : (double) occupiedSlots / clusters;
+	}
+
+	public double getMeanProbeLength() {
+		return size == 0 ? 0 : (double) totalProbeLength / size;
+	}
+
+	public int getMaxProbeLength() {
+		return maxProbeLength;
+	}
+
+	public String toString() {
+		return String.format("capacity=%d size=%d load=%.3f clusters=%d "
+				+ "meanCluster=%.2f maxCluster=%d meanProbe=%.2f maxProbe=%d",
+				capacity, size, getLoadFactor(), clusters,
+				getMeanClusterLength(), maxClusterLength,
+				getMeanProbeLength(), maxProbeLength);
+	}
+}
@@ -0,0 +1,271 @@
+package HashTables;
+
+/**
+ * This is an implementation of a hash table from long keys to long values
+ * with linear probing. Keys and values are kept in two flat parallel arrays,
+ * so no object is allocated per entry and nothing is boxed.
+ * 
+ * A key of 0 marks an empty slot, so the mapping for key 0 (if any) is held
+ * in a separate field. The capacity is always a power of two and the mixed
+ * key is masked into range. Deletion shifts the following entries of a
+ * cluster back (Knuth's Algorithm R) rather than leaving tombstones. The table
+ * doubles once more than maxLoadFactor of its slots are in use.
+ * 
+ * Unlike HashTableLProbe, inserting an existing key replaces its value.
+ * 
+ * @author samistart
+ *
+ */
+public class LongLongHashTable {
+
+	private static final long FREE = 0;
+
+	private long[] keys;
+	private long[] values;
+	private int mask;
+
+	private boolean hasFreeKey;
+	private long freeKeyValue;
+
+	private int size;
+	private final double maxLoadFactor;
+	private int resizeThreshold;
+
+	/**
+	 * Default constructor.
+	 */
+	public LongLongHashTable() {
+		this(16);
+	}
+
+	/**
+	 * Constructor for a table that holds the given number of entries without
+	 * resizing.
+	 */
+	public LongLongHashTable(int expectedSize) {
+		this(expectedSize, HashTableLProbe.DEFAULT_MAX_LOAD_FACTOR);
+	}
+
+	/**
+	 * Constructor for a given expected size and maximum load factor.
+	 */
+	public LongLongHashTable(int expectedSize, double maxLoadFactor) {
+		if (expectedSize < 0 || maxLoadFactor <= 0 || maxLoadFactor >= 1) {
+			throw new IllegalArgumentException(
+					"Size must be non-negative and 0 < maxLoadFactor < 1");
+		}
+		this.maxLoadFactor = maxLoadFactor;
+		allocate(capacityFor(expectedSize, maxLoadFactor));
+	}
+
+	/**
+	 * Map a key to a value, replacing any previous value for the key.
+	 */
+	public void insert(long key, long value) {
+		if (key == FREE) {
+			if (!hasFreeKey) {
+				size += 1;
+			}
+			hasFreeKey = true;
+			freeKeyValue = value;
+			return;
+		}
+
+		int index = slot(key);
+		while (keys[index] != FREE) {
+			if (keys[index] == key) {
+				values[index] = value;
+				return;
+			}
+			index = (index + 1) & mask;
+		}
+
+		keys[index] = key;
+		values[index] = value;
+		size += 1;
+
+		if (size > resizeThreshold) {
+			rehash(keys.length * 2);
+		}
+	}
+
+	/**
+	 * Find the value which is mapped to a key.
+	 */
+	public long retrieve(long key) throws KeyNotFoundInTableException {
+		if (key == FREE) {
+			if (!hasFreeKey) {
+				throw new KeyNotFoundInTableException();
+			}
+			return freeKeyValue;
+		}
+
+		int index = find(key);
+		if (index < 0) {
+			throw new KeyNotFoundInTableException();
+		}
+		return values[index];
+	}
+
+	/**
+	 * Find the value which is mapped to a key, or return missingValue if the
+	 * key is not in the table. This avoids the cost of an exception on hot
+	 * paths where misses are common.
+	 */
+	public long retrieve(long key, long missingValue) {
+		if (key == FREE) {
+			return hasFreeKey ? freeKeyValue : missingValue;
+		}
+
+		int index = find(key);
+		return index < 0 ? missingValue : values[index];
+	}
+
+	/**
+	 * Tests whether the table holds a mapping for a key.
+	 */
+	public boolean contains(long key) {
+		return key == FREE ? hasFreeKey : find(key) >= 0;
+	}
+
+	/**
+	 * Delete a mapping for a key.
+	 */
+	public void delete(long key) throws KeyNotFoundInTableException {
+		if (key == FREE) {
+			if (!hasFreeKey) {
+				throw new KeyNotFoundInTableException();
+			}
+			hasFreeKey = false;
+			size -= 1;
+			return;
+		}
+
+		int index = find(key);
+		if (index < 0) {
+			throw new KeyNotFoundInTableException();
+		}
+		shiftBack(index);
+		size -= 1;
+	}
+
+	/**
+	 * Returns the number of mappings in the table.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Tests whether the table is empty.
+	 */
+	public boolean empty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes all mappings, keeping the current capacity.
+	 */
+	public void clear() {
+		java.util.Arrays.fill(keys, FREE);
+		hasFreeKey = false;
+		size = 0;
+	}
+
+	/**
+	 * Return the slot holding key, or -1 if there is none.
+	 */
+	private int find(long key) {
+		int index = slot(key);
+		while (keys[index] != FREE) {
+			if (keys[index] == key) {
+				return index;
+			}
+			index = (index + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Empty the slot at index and close the gap: each following entry of the
+	 * cluster whose home slot does not lie cyclically in (gap, entry] is moved
+	 * back into the gap, which then moves on to that entry's old slot.
+	 */
+	private void shiftBack(int gap) {
+		int index = gap;
+		while (true) {
+			index = (index + 1) & mask;
+			long key = keys[index];
+			if (key == FREE) {
+				keys[gap] = FREE;
+				return;
+			}
+
+			int home = slot(key);
+			boolean reachable = gap <= index ? (gap < home && home <= index)
+					: (gap < home || home <= index);
+			if (!reachable) {
+				keys[gap] = key;
+				values[gap] = values[index];
+				gap = index;
+			}
+		}
+	}
+
+	private int slot(long key) {
+		return (int) HashFunctions.mix(key) & mask;
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		long[] oldValues = values;
+
+		allocate(capacity);
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			long key = oldKeys[i];
+			if (key != FREE) {
+				int index = slot(key);
+				while (keys[index] != FREE) {
+					index = (index + 1) & mask;
+				}
+				keys[index] = key;
+				values[index] = oldValues[i];
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new long[capacity];
+		mask = capacity - 1;
+		resizeThreshold = (int) (capacity * maxLoadFactor);
+	}
+
+	/**
+	 * Smallest power of two that holds n entries under the given load.
+	 */
+	static int capacityFor(int n, double loadFactor) {
+		long needed = (long) Math.ceil(n / loadFactor) + 1;
+		if (needed > 1 << 30) {
+			throw new IllegalArgumentException("Table too large: " + n);
+		}
+		return Math.max(2, Integer.highestOneBit((int) needed - 1) << 1);
+	}
+
+	/**
+	 * Return a textual representation of the mappings in the table.
+	 */
+	public String toString() {
+		StringBuilder str = new StringBuilder();
+		if (hasFreeKey) {
+			str.append(FREE).append(" ").append(freeKeyValue).append("\n");
+		}
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != FREE) {
+				str.append(keys[i]).append(" ").append(values[i]).append("\n");
+			}
+		}
+		return str.toString();
+	}
+}
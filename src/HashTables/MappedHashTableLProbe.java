@@ -0,0 +1,328 @@
+package HashTables;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This is a hash table with linear probing whose slot array lives in a
+ * memory-mapped file rather than on the Java heap. Opening an existing file
+ * maps it and serves lookups straight away, with nothing to deserialise.
+ * Writes go directly to the mapping; force() is the checkpoint that makes
+ * them durable. Keys are strings of at most maxKeyBytes bytes in UTF-8 and
+ * values are longs (e.g. offsets into another file).
+ * 
+ * The capacity is fixed when the file is created: insert() throws
+ * TableOverflowException once the table is at its maximum load. Deletion
+ * shifts the following entries of a cluster back, so the file never fills up
+ * with tombstones.
+ * 
+ * File layout (all integers little-endian):
+ * 
+ * <pre>
+ * header, 64 bytes:
+ *   0  int   magic, 0x504C5448 ("HTLP")
+ *   4  int   format version, 1
+ *   8  int   capacity, number of slots (a power of two)
+ *   12 int   maxKeyBytes
+ *   16 int   slotSize, bytes per slot
+ *   20 int   size, number of mappings
+ *   24 int   hash seed
+ *   28 ...   reserved, zero
+ * slots, capacity * slotSize bytes, slot i at 64 + i * slotSize:
+ *   0  int   MurmurHash3 of the key with the file's seed
+ *   4  short key length in bytes
+ *   6  byte  1 if the slot is in use, 0 if it is empty
+ *   7  byte  reserved
+ *   8  long  value
+ *   16 bytes UTF-8 key, maxKeyBytes rounded up to a multiple of 8
+ * </pre>
+ * 
+ * A MappedByteBuffer is limited to 2GB, which bounds capacity * slotSize.
+ * Concurrent readers are safe as long as no thread is writing.
+ * 
+ * @author samistart
+ *
+ */
+public class MappedHashTableLProbe implements Closeable {
+
+	private static final int MAGIC = 0x504C5448;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 64;
+
+	private static final int CAPACITY_OFFSET = 8;
+	private static final int MAX_KEY_OFFSET = 12;
+	private static final int SLOT_SIZE_OFFSET = 16;
+	private static final int SIZE_OFFSET = 20;
+	private static final int SEED_OFFSET = 24;
+
+	private static final int HASH = 0;
+	private static final int KEY_LENGTH = 4;
+	private static final int USED = 6;
+	private static final int VALUE = 8;
+	private static final int KEY = 16;
+
+	private final FileChannel channel;
+	private MappedByteBuffer buffer;
+
+	private final int capacity;
+	private final int mask;
+	private final int maxKeyBytes;
+	private final int slotSize;
+	private final int maxSize;
+	private final HashFunction hashFunction;
+	private int size;
+
+	private MappedHashTableLProbe(FileChannel channel, MappedByteBuffer buffer) {
+		this.channel = channel;
+		this.buffer = buffer;
+		capacity = buffer.getInt(CAPACITY_OFFSET);
+		mask = capacity - 1;
+		maxKeyBytes = buffer.getInt(MAX_KEY_OFFSET);
+		slotSize = buffer.getInt(SLOT_SIZE_OFFSET);
+		size = buffer.getInt(SIZE_OFFSET);
+		hashFunction = HashFunctions.seeded(buffer.getInt(SEED_OFFSET));
+		maxSize = (int) (capacity * HashTableLProbe.DEFAULT_MAX_LOAD_FACTOR);
+	}
+
+	/**
+	 * Create a new, empty table file with at least the given number of slots
+	 * (rounded up to a power of two, and to at least two so that the table
+	 * can hold an entry under the maximum load). An existing file is
+	 * overwritten.
+	 */
+	public static MappedHashTableLProbe create(File file, int capacity,
+			int maxKeyBytes) throws IOException {
+		if (capacity < 1 || capacity > 1 << 30 || maxKeyBytes < 1
+				|| maxKeyBytes > Short.MAX_VALUE) {
+			throw new IllegalArgumentException("Invalid capacity or key size");
+		}
+		capacity = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+		int slotSize = KEY + ((maxKeyBytes + 7) & ~7);
+		long length = HEADER_SIZE + (long) capacity * slotSize;
+		if (length > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Table does not fit in one mapping");
+		}
+
+		FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE,
+				0, length);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+		// A freshly extended file reads as zeros, so every slot is empty.
+		buffer.putInt(0, MAGIC);
+		buffer.putInt(4, VERSION);
+		buffer.putInt(CAPACITY_OFFSET, capacity);
+		buffer.putInt(MAX_KEY_OFFSET, maxKeyBytes);
+		buffer.putInt(SLOT_SIZE_OFFSET, slotSize);
+		buffer.putInt(SIZE_OFFSET, 0);
+		buffer.putInt(SEED_OFFSET, (int) System.nanoTime());
+
+		return new MappedHashTableLProbe(channel, buffer);
+	}
+
+	/**
+	 * Map an existing table file.
+	 */
+	public static MappedHashTableLProbe open(File file) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			long length = channel.size();
+			if (length < HEADER_SIZE || length > Integer.MAX_VALUE) {
+				throw new IOException("Not a hash table file: " + file);
+			}
+			MappedByteBuffer buffer = channel.map(
+					FileChannel.MapMode.READ_WRITE, 0, length);
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+			if (buffer.getInt(0) != MAGIC) {
+				throw new IOException("Not a hash table file: " + file);
+			}
+			if (buffer.getInt(4) != VERSION) {
+				throw new IOException("Unsupported format version "
+						+ buffer.getInt(4) + ": " + file);
+			}
+			long expected = HEADER_SIZE + (long) buffer.getInt(CAPACITY_OFFSET)
+					* buffer.getInt(SLOT_SIZE_OFFSET);
+			if (expected != length) {
+				throw new IOException("Truncated hash table file: " + file);
+			}
+			return new MappedHashTableLProbe(channel, buffer);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Map a key to a value, replacing any previous value for the key.
+	 */
+	public void insert(String key, long value) throws TableOverflowException {
+		byte[] bytes = encode(key);
+		int hash = hashFunction.hash(key);
+		int index = hash & mask;
+
+		while (isUsed(index)) {
+			if (matches(index, hash, bytes)) {
+				buffer.putLong(offset(index) + VALUE, value);
+				return;
+			}
+			index = (index + 1) & mask;
+		}
+
+		if (size == maxSize) {
+			throw new TableOverflowException();
+		}
+
+		int base = offset(index);
+		buffer.putInt(base + HASH, hash);
+		buffer.putShort(base + KEY_LENGTH, (short) bytes.length);
+		buffer.putLong(base + VALUE, value);
+		for (int i = 0; i < bytes.length; i++) {
+			buffer.put(base + KEY + i, bytes[i]);
+		}
+		// Mark the slot used last, once its contents are in place.
+		buffer.put(base + USED, (byte) 1);
+		setSize(size + 1);
+	}
+
+	/**
+	 * Find the value which is mapped to a key.
+	 */
+	public long retrieve(String key) throws KeyNotFoundInTableException {
+		return buffer.getLong(offset(find(key)) + VALUE);
+	}
+
+	/**
+	 * Delete a mapping for a key.
+	 */
+	public void delete(String key) throws KeyNotFoundInTableException {
+		int gap = find(key);
+
+		// Close the gap as in LongLongHashTable: move back each following
+		// entry of the cluster whose home slot is not in (gap, index].
+		int index = gap;
+		while (true) {
+			index = (index + 1) & mask;
+			if (!isUsed(index)) {
+				break;
+			}
+			int home = buffer.getInt(offset(index) + HASH) & mask;
+			boolean reachable = gap <= index ? (gap < home && home <= index)
+					: (gap < home || home <= index);
+			if (!reachable) {
+				copySlot(index, gap);
+				gap = index;
+			}
+		}
+
+		clearSlot(gap);
+		setSize(size - 1);
+	}
+
+	/**
+	 * Returns the number of mappings in the table.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of slots in the table.
+	 */
+	public int capacity() {
+		return capacity;
+	}
+
+	/**
+	 * Checkpoint: write every change made so far through to the file.
+	 */
+	public void force() {
+		buffer.force();
+	}
+
+	/**
+	 * Force outstanding changes to disk and close the file. The mapping is
+	 * released when it is garbage collected.
+	 */
+	public void close() throws IOException {
+		if (buffer != null) {
+			buffer.force();
+			buffer = null;
+			channel.close();
+		}
+	}
+
+	private int find(String key) throws KeyNotFoundInTableException {
+		byte[] bytes = encode(key);
+		int hash = hashFunction.hash(key);
+		int index = hash & mask;
+
+		while (isUsed(index)) {
+			if (matches(index, hash, bytes)) {
+				return index;
+			}
+			index = (index + 1) & mask;
+		}
+		throw new KeyNotFoundInTableException();
+	}
+
+	private byte[] encode(String key) {
+		byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > maxKeyBytes) {
+			throw new IllegalArgumentException("Key longer than " + maxKeyBytes
+					+ " bytes: " + key);
+		}
+		return bytes;
+	}
+
+	private int offset(int index) {
+		return HEADER_SIZE + index * slotSize;
+	}
+
+	private boolean isUsed(int index) {
+		return buffer.get(offset(index) + USED) != 0;
+	}
+
+	private boolean matches(int index, int hash, byte[] bytes) {
+		int base = offset(index);
+		if (buffer.getInt(base + HASH) != hash
+				|| buffer.getShort(base + KEY_LENGTH) != bytes.length) {
+			return false;
+		}
+		for (int i = 0; i < bytes.length; i++) {
+			if (buffer.get(base + KEY + i) != bytes[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void copySlot(int from, int to) {
+		int source = offset(from);
+		int target = offset(to);
+		for (int i = 0; i < slotSize; i += 8) {
+			buffer.putLong(target + i, buffer.getLong(source + i));
+		}
+	}
+
+	private void clearSlot(int index) {
+		int base = offset(index);
+		for (int i = 0; i < slotSize; i += 8) {
+			buffer.putLong(base + i, 0);
+		}
+	}
+
+	private void setSize(int n) {
+		size = n;
+		buffer.putInt(SIZE_OFFSET, n);
+	}
+}
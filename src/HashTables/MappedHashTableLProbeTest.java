@@ -0,0 +1,50 @@
+package HashTables;
+
+import java.io.File;
+
+public class MappedHashTableLProbeTest {
+  public static void main(String[] args) throws Exception {
+    File file = File.createTempFile("lut", ".htlp");
+    file.deleteOnExit();
+
+    MappedHashTableLProbe myLUT = MappedHashTableLProbe.create(file, 16, 32);
+    myLUT.insert("Priscilla", 41);
+    myLUT.insert("Travis", 34);
+    myLUT.insert("Samuel", 28);
+    myLUT.insert("Helena", 39);
+    myLUT.delete("Travis");
+    myLUT.insert("Samuel", 29);
+    myLUT.close();
+
+    // Reopening maps the same slots; nothing is rebuilt.
+    myLUT = MappedHashTableLProbe.open(file);
+    System.out.println("Size after reopening: " + myLUT.size());
+    System.out.println("Samuel -> " + myLUT.retrieve("Samuel"));
+    System.out.println("Helena -> " + myLUT.retrieve("Helena"));
+
+    for (int i = 0; i < 100; i++) {
+      try {
+        myLUT.insert("Key" + i, i);
+      } catch (TableOverflowException e) {
+        System.out.println("Full after " + myLUT.size() + " of "
+            + myLUT.capacity() + " slots: " + e);
+        break;
+      }
+    }
+    myLUT.force();
+
+    try {
+      myLUT.retrieve("Travis");
+    } catch (KeyNotFoundInTableException e) {
+      System.out.println(e);
+    }
+    myLUT.close();
+
+    // The smallest table still holds one entry.
+    MappedHashTableLProbe tinyLUT = MappedHashTableLProbe.create(file, 1, 32);
+    tinyLUT.insert("Kay", 24);
+    System.out.println("Tiny table: " + tinyLUT.capacity() + " slots, Kay -> "
+        + tinyLUT.retrieve("Kay"));
+    tinyLUT.close();
+  }
+}
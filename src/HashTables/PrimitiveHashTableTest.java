@@ -0,0 +1,38 @@
+package HashTables;
+
+public class PrimitiveHashTableTest {
+  public static void main(String[] args) {
+    try {
+      LongLongHashTable offsets = new LongLongHashTable(4);
+      for (long id = 0; id < 20; id++) {
+        offsets.insert(id * 1000003L, id * 64);
+      }
+      System.out.println("Size: " + offsets.size());
+      System.out.println("Offset of 5000015: " + offsets.retrieve(5000015L));
+
+      offsets.delete(5000015L);
+      offsets.delete(0L);
+      System.out.println("Size after deletes: " + offsets.size()
+          + ", 5000015 present: " + offsets.contains(5000015L));
+      System.out.println("Missing with default: "
+          + offsets.retrieve(5000015L, -1L));
+
+      IntIntHashTable counts = new IntIntHashTable();
+      for (int i = 0; i < 100; i++) {
+        counts.insert(i % 7, counts.retrieve(i % 7, 0) + 1);
+      }
+      System.out.println(counts);
+
+      LongObjectHashTable names = new LongObjectHashTable();
+      names.insert(41L, "Priscilla");
+      names.insert(34L, "Travis");
+      names.insert(28L, "Samuel");
+      names.insert(34L, "Helena");
+      System.out.println(names);
+
+      names.delete(99L);
+    } catch (KeyNotFoundInTableException e) {
+      System.out.println(e);
+    }
+  }
+}
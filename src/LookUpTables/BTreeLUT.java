@@ -0,0 +1,422 @@
+package LookUpTables;
+
+/**
+ * <dl>
+ * <dt>Purpose: Implementation of LUT using a B-tree.
+ * <dd>
+ *
+ * <dt>Description:
+ * <dd>This class is an implementation of the look-up table abstract data type
+ * that uses an in-memory B-tree as the underlying data structure. Each node
+ * holds up to 2t - 1 sorted keys and their values in plain arrays, so one
+ * node replaces dozens of BinaryTreeLUT nodes: a search does a binary search
+ * inside each node and follows only O(log_t n) child pointers, and there is
+ * no per-entry node, entry or key object.
+ * 
+ * <dd>Insertion splits full nodes and removal fills minimal nodes on the way
+ * down (as in Cormen et al.), so both are single top-down passes. Unlike
+ * BinaryTreeLUT, keys are unique: inserting an existing key replaces its
+ * value. The elements are stored in ascending alphabetical order.
+ * </dl>
+ *
+ * @author Sami Start
+ */
+public class BTreeLUT {
+
+	public static final int DEFAULT_MIN_DEGREE = 32;
+
+	/**
+	 * The member class Node holds n sorted keys with their values and, for an
+	 * internal node, the n + 1 subtrees between them.
+	 */
+	protected class Node {
+
+		public Node(boolean leaf) {
+			keys = new String[2 * t - 1];
+			values = new Object[2 * t - 1];
+			children = leaf ? null : new Node[2 * t];
+		}
+
+		boolean isLeaf() {
+			return children == null;
+		}
+
+		protected int n;
+		protected String[] keys;
+		protected Object[] values;
+		protected Node[] children;
+	}
+
+	// Minimum degree: every node but the root has between t - 1 and 2t - 1
+	// keys.
+	protected final int t;
+	protected Node root;
+	private int size;
+
+	/**
+	 * Default constructor - no need to specify capacity of LUT.
+	 */
+	public BTreeLUT() {
+		this(DEFAULT_MIN_DEGREE);
+	}
+
+	/**
+	 * Constructor for a given minimum degree (at least 2).
+	 */
+	public BTreeLUT(int minDegree) {
+		if (minDegree < 2) {
+			throw new IllegalArgumentException("Minimum degree must be >= 2");
+		}
+		t = minDegree;
+		root = new Node(true);
+	}
+
+	/**
+	 * Inserts a new key-value pair into the look-up table, replacing the
+	 * value if the key is already present.
+	 */
+	public void insert(String key, Object value) {
+		if (root.n == 2 * t - 1) {
+			Node newRoot = new Node(false);
+			newRoot.children[0] = root;
+			root = newRoot;
+			split(newRoot, 0);
+		}
+
+		Node node = root;
+		while (true) {
+			int i = search(node, key);
+			if (i >= 0) {
+				node.values[i] = value;
+				return;
+			}
+			int pos = -(i + 1);
+
+			if (node.isLeaf()) {
+				shiftRight(node, pos);
+				node.keys[pos] = key;
+				node.values[pos] = value;
+				node.n += 1;
+				size += 1;
+				return;
+			}
+
+			// Split a full child before entering it, so there is always
+			// room for the median of a split below.
+			if (node.children[pos].n == 2 * t - 1) {
+				split(node, pos);
+				int cmp = key.compareTo(node.keys[pos]);
+				if (cmp == 0) {
+					node.values[pos] = value;
+					return;
+				} else if (cmp > 0) {
+					pos += 1;
+				}
+			}
+			node = node.children[pos];
+		}
+	}
+
+	/**
+	 * Retrieves the value stored with the specified key.
+	 */
+	public Object retrieve(String key) throws KeyNotFoundInTableException {
+		Node node = root;
+		while (true) {
+			int i = search(node, key);
+			if (i >= 0) {
+				return node.values[i];
+			}
+			if (node.isLeaf()) {
+				throw new KeyNotFoundInTableException();
+			}
+			node = node.children[-(i + 1)];
+		}
+	}
+
+	/**
+	 * Updates the key-value pair with the specified key with the new specified
+	 * value.
+	 */
+	public void update(String key, Object value)
+			throws KeyNotFoundInTableException {
+		Node node = root;
+		while (true) {
+			int i = search(node, key);
+			if (i >= 0) {
+				node.values[i] = value;
+				return;
+			}
+			if (node.isLeaf()) {
+				throw new KeyNotFoundInTableException();
+			}
+			node = node.children[-(i + 1)];
+		}
+	}
+
+	/**
+	 * Removes the key-value pair with the specified key from the look-up table.
+	 */
+	public void remove(String key) throws KeyNotFoundInTableException {
+		Node node = root;
+
+		// Invariant: every node entered below the root has at least t keys,
+		// so a key can be taken out of it without further fix-ups.
+		while (true) {
+			int i = search(node, key);
+
+			if (i >= 0 && node.isLeaf()) {
+				shiftLeft(node, i);
+				size -= 1;
+				return;
+			}
+
+			if (i >= 0) {
+				Node left = node.children[i];
+				Node right = node.children[i + 1];
+
+				if (left.n >= t) {
+					// Replace the key by its predecessor and go on to
+					// remove the predecessor from the left subtree.
+					Node max = left;
+					while (!max.isLeaf()) {
+						max = max.children[max.n];
+					}
+					key = max.keys[max.n - 1];
+					node.keys[i] = key;
+					node.values[i] = max.values[max.n - 1];
+					node = left;
+				} else if (right.n >= t) {
+					// Likewise with the successor from the right subtree.
+					Node min = right;
+					while (!min.isLeaf()) {
+						min = min.children[0];
+					}
+					key = min.keys[0];
+					node.keys[i] = key;
+					node.values[i] = min.values[0];
+					node = right;
+				} else {
+					// Both are minimal: merge them around the key and remove
+					// it from the merged node.
+					node = merge(node, i);
+				}
+				continue;
+			}
+
+			if (node.isLeaf()) {
+				throw new KeyNotFoundInTableException();
+			}
+
+			int pos = -(i + 1);
+			Node child = node.children[pos];
+			if (child.n == t - 1) {
+				if (pos > 0 && node.children[pos - 1].n >= t) {
+					borrowFromLeft(node, pos);
+				} else if (pos < node.n && node.children[pos + 1].n >= t) {
+					borrowFromRight(node, pos);
+				} else if (pos < node.n) {
+					child = merge(node, pos);
+				} else {
+					child = merge(node, pos - 1);
+				}
+			}
+			node = child;
+		}
+	}
+
+	/**
+	 * Returns the number of key-value pairs in the look-up table.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns a string listing all the key-entry pairs in the LUT
+	 */
+	public String toString() {
+		StringBuilder str = new StringBuilder();
+		appendNode(str, root);
+		return str.toString();
+	}
+
+	// protected methods implementing operations on the nodes.
+
+	/**
+	 * Binary search for key among the keys of node. Returns its index if it
+	 * is present, otherwise -(insertion point + 1).
+	 */
+	protected int search(Node node, String key) {
+		int lo = 0;
+		int hi = node.n - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			int cmp = node.keys[mid].compareTo(key);
+			if (cmp < 0) {
+				lo = mid + 1;
+			} else if (cmp > 0) {
+				hi = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(lo + 1);
+	}
+
+	/**
+	 * Splits the full child i of parent around its median, which moves up
+	 * into parent.
+	 */
+	protected void split(Node parent, int i) {
+		Node full = parent.children[i];
+		Node sibling = new Node(full.isLeaf());
+
+		sibling.n = t - 1;
+		System.arraycopy(full.keys, t, sibling.keys, 0, t - 1);
+		System.arraycopy(full.values, t, sibling.values, 0, t - 1);
+		if (!full.isLeaf()) {
+			System.arraycopy(full.children, t, sibling.children, 0, t);
+			clear(full.children, t, 2 * t);
+		}
+
+		shiftRight(parent, i);
+		parent.keys[i] = full.keys[t - 1];
+		parent.values[i] = full.values[t - 1];
+		parent.children[i + 1] = sibling;
+		parent.n += 1;
+
+		full.n = t - 1;
+		clear(full.keys, t - 1, 2 * t - 1);
+		clear(full.values, t - 1, 2 * t - 1);
+	}
+
+	/**
+	 * Merges child i + 1 of parent and the key between them into child i,
+	 * which is returned. Both children must have t - 1 keys.
+	 */
+	protected Node merge(Node parent, int i) {
+		Node left = parent.children[i];
+		Node right = parent.children[i + 1];
+
+		left.keys[t - 1] = parent.keys[i];
+		left.values[t - 1] = parent.values[i];
+		System.arraycopy(right.keys, 0, left.keys, t, right.n);
+		System.arraycopy(right.values, 0, left.values, t, right.n);
+		if (!left.isLeaf()) {
+			System.arraycopy(right.children, 0, left.children, t, right.n + 1);
+		}
+		left.n = 2 * t - 1;
+
+		// Removing key i also drops the pointer to the right child.
+		shiftLeft(parent, i);
+
+		// An emptied root gives way to the merged node.
+		if (parent == root && root.n == 0) {
+			root = left;
+		}
+		return left;
+	}
+
+	/**
+	 * Moves a key from the left sibling of child pos through the parent.
+	 */
+	private void borrowFromLeft(Node parent, int pos) {
+		Node child = parent.children[pos];
+		Node sibling = parent.children[pos - 1];
+
+		System.arraycopy(child.keys, 0, child.keys, 1, child.n);
+		System.arraycopy(child.values, 0, child.values, 1, child.n);
+		if (!child.isLeaf()) {
+			System.arraycopy(child.children, 0, child.children, 1, child.n + 1);
+			child.children[0] = sibling.children[sibling.n];
+			sibling.children[sibling.n] = null;
+		}
+		child.keys[0] = parent.keys[pos - 1];
+		child.values[0] = parent.values[pos - 1];
+		child.n += 1;
+
+		parent.keys[pos - 1] = sibling.keys[sibling.n - 1];
+		parent.values[pos - 1] = sibling.values[sibling.n - 1];
+		sibling.n -= 1;
+		sibling.keys[sibling.n] = null;
+		sibling.values[sibling.n] = null;
+	}
+
+	/**
+	 * Moves a key from the right sibling of child pos through the parent.
+	 */
+	private void borrowFromRight(Node parent, int pos) {
+		Node child = parent.children[pos];
+		Node sibling = parent.children[pos + 1];
+
+		child.keys[child.n] = parent.keys[pos];
+		child.values[child.n] = parent.values[pos];
+		if (!child.isLeaf()) {
+			child.children[child.n + 1] = sibling.children[0];
+			System.arraycopy(sibling.children, 1, sibling.children, 0,
+					sibling.n);
+			sibling.children[sibling.n] = null;
+		}
+		child.n += 1;
+
+		parent.keys[pos] = sibling.keys[0];
+		parent.values[pos] = sibling.values[0];
+		System.arraycopy(sibling.keys, 1, sibling.keys, 0, sibling.n - 1);
+		System.arraycopy(sibling.values, 1, sibling.values, 0, sibling.n - 1);
+		sibling.n -= 1;
+		sibling.keys[sibling.n] = null;
+		sibling.values[sibling.n] = null;
+	}
+
+	/**
+	 * Opens a gap at key position i (and child position i + 1).
+	 */
+	private void shiftRight(Node node, int i) {
+		System.arraycopy(node.keys, i, node.keys, i + 1, node.n - i);
+		System.arraycopy(node.values, i, node.values, i + 1, node.n - i);
+		if (!node.isLeaf()) {
+			System.arraycopy(node.children, i + 1, node.children, i + 2,
+					node.n - i);
+		}
+	}
+
+	/**
+	 * Removes key i (and child i + 1) from node.
+	 */
+	private void shiftLeft(Node node, int i) {
+		System.arraycopy(node.keys, i + 1, node.keys, i, node.n - i - 1);
+		System.arraycopy(node.values, i + 1, node.values, i, node.n - i - 1);
+		if (!node.isLeaf()) {
+			System.arraycopy(node.children, i + 2, node.children, i + 1,
+					node.n - i - 1);
+			node.children[node.n] = null;
+		}
+		node.n -= 1;
+		node.keys[node.n] = null;
+		node.values[node.n] = null;
+	}
+
+	private static void clear(Object[] array, int from, int to) {
+		for (int i = from; i < to; i++) {
+			array[i] = null;
+		}
+	}
+
+	/**
+	 * Appends the pairs of the subtree rooted at node in key order. The
+	 * recursion is only as deep as the tree, O(log_t n).
+	 */
+	private void appendNode(StringBuilder str, Node node) {
+		for (int i = 0; i < node.n; i++) {
+			if (!node.isLeaf()) {
+				appendNode(str, node.children[i]);
+			}
+			str.append(node.keys[i]).append(":").append(node.values[i])
+					.append(", ");
+		}
+		if (!node.isLeaf()) {
+			appendNode(str, node.children[node.n]);
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package LookUpTables;
+
+public class BTreeLUTTest {
+	public static void main(String[] args) {
+		try {
+			BTreeLUT myLUT = new BTreeLUT(2);
+
+			myLUT.insert("Priscilla", new Integer(41));
+			myLUT.insert("Travis", new Integer(34));
+			myLUT.insert("Samuel", new Integer(28));
+			myLUT.insert("Helena", new Integer(39));
+			myLUT.insert("Andrew", new Integer(14));
+			myLUT.insert("Kay", new Integer(24));
+			myLUT.insert("John", new Integer(67));
+			System.out.println(myLUT);
+
+			myLUT.update("Kay", new Integer(25));
+			myLUT.remove("Helena");
+			System.out.println(myLUT);
+
+			myLUT.remove("John");
+			myLUT.remove("Travis");
+			System.out.println(myLUT);
+
+			BTreeLUT bigLUT = new BTreeLUT();
+			for (int i = 0; i < 1000000; i++) {
+				bigLUT.insert(String.format("Key%07d", i), new Integer(i));
+			}
+			for (int i = 0; i < 1000000; i += 2) {
+				bigLUT.remove(String.format("Key%07d", i));
+			}
+			System.out.println("Size: " + bigLUT.size() + ", Key0654321 -> "
+					+ bigLUT.retrieve("Key0654321"));
+
+			myLUT.remove("Travis");
+		} catch (Exception e) {
+			System.out.println(e);
+		}
+	}
+}
@@ -1,5 +1,18 @@
 package LookUpTables;
 
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
 class KeyNotFoundInTableException extends Exception {
 }
 
@@ -13,13 +26,33 @@ class KeyNotFoundInTableException extends Exception {
  * that uses a sequence array as the underlying data structure. The capacity of
  * the LUT is thus limited. The elements of the look-up table are stored in
  * reverse alphabetical order and linear search is used for retrieval.
+ * 
+ * <dd>A tree constructed in balanced mode is kept as an AVL tree, so insert,
+ * retrieve, update and remove take O(log n) time even when keys arrive in
+ * sorted order. All operations walk the tree iteratively, so a degenerate
+ * unbalanced tree cannot overflow the call stack either.
+ * 
+ * <dd>The pairs can be enumerated lazily in ascending key order with
+ * iterator(), over a key range with range(), headMap() and tailMap(), and
+ * in descending order with descendingIterator(). Iterators hold only the
+ * O(height) path to their current node. The tree must not be modified
+ * while it is being iterated.
+ * 
+ * <dd>bulkLoad() builds a perfectly balanced tree from sorted input and
+ * merge() combines two trees, both in linear time.
+ * 
+ * <dd>Every node records the size of its subtree, so size(), rank(),
+ * select() and countRange() take O(height) time.
+ * 
+ * <dd>A table that is only read once built can be turned into a compact,
+ * faster FrozenLUT with freeze().
  * </dl>
  *
  *@author Sami Start 
  * @version $Date: 15/02/2015
  */
 
-public class BinaryTreeLUT {
+public class BinaryTreeLUT implements Iterable<Map.Entry<String, Object>> {
 
 	/**
 	 * The member class Key is used for the indexing keys of the LUT. It is a
@@ -43,6 +76,12 @@ public class BinaryTreeLUT {
 			return (kString.compareTo(k.toString()) > 0);
 		}
 
+		// Negative, zero or positive as this key is less than, equal to or
+		// greater than k, so a search needs one comparison per level.
+		public int compareTo(Key k) {
+			return kString.compareTo(k.toString());
+		}
+
 		public String toString() {
 			return kString;
 		}
@@ -75,27 +114,50 @@ public class BinaryTreeLUT {
 			kvPair = e;
 			left = null;
 			right = null;
+			height = 1;
+			size = 1;
 		}
 
 		public BSTreeNode(Entry e, BSTreeNode l, BSTreeNode r) {
 			kvPair = e;
 			left = l;
 			right = r;
+			height = 1 + Math.max(height(l), height(r));
+			size = 1 + size(l) + size(r);
 		}
 
 		protected Entry kvPair;
 		protected BSTreeNode left;
 		protected BSTreeNode right;
+		// Height of the subtree rooted here; only maintained in balanced mode.
+		protected int height;
+		// Number of nodes in the subtree rooted here; always maintained.
+		protected int size;
 	}
 
 	// Single protected data member - the LUT is stored in a sequence.
 	protected BSTreeNode root;
 
+	// Whether the tree is kept height balanced (AVL) on insert and remove.
+	protected final boolean balanced;
+
+	// Scratch stack of the nodes on the path from the root to the current
+	// position, used instead of recursion.
+	private BSTreeNode[] path = new BSTreeNode[32];
+
 	/**
 	 * Default constructor - no need to specify capacity of LUT.
 	 */
 	public BinaryTreeLUT() {
+		this(false);
+	}
+
+	/**
+	 * Constructor selecting whether the tree is self-balancing.
+	 */
+	public BinaryTreeLUT(boolean balanced) {
 		root = null;
+		this.balanced = balanced;
 	}
 
 	/**
@@ -104,7 +166,7 @@ public class BinaryTreeLUT {
 	public void insert(String key, Object value) {
 
 		BSTreeNode newNode = new BSTreeNode(new Entry(new Key(key), value));
-		addToTree(newNode, root);
+		addToTree(newNode);
 	}
 
 	/**
@@ -113,122 +175,143 @@ public class BinaryTreeLUT {
 	public void remove(String key) throws KeyNotFoundInTableException {
 
 		Key searchKey = new Key(key);
-		removeFromTree(searchKey, root);
+		removeFromTree(searchKey);
 	}
 
 	/**
-	 * Removes the node containing k from the tree rooted at node.
+	 * Removes the node containing k from the tree.
 	 */
-	protected void removeFromTree(Key k, BSTreeNode node)
-			throws KeyNotFoundInTableException {
-		// Special case for empty tree.
-		if (node == null) {
-			throw new KeyNotFoundInTableException();
+	protected void removeFromTree(Key k) throws KeyNotFoundInTableException {
+		int depth = 0;
+		BSTreeNode node = root;
+
+		// Walk down to the node, recording the path. If the key at the
+		// current node is less than the search key, go to the left subtree.
+		while (node != null) {
+			int cmp = node.kvPair.key.compareTo(k);
+			if (cmp == 0) {
+				break;
+			}
+			depth = push(depth, node);
+			node = cmp < 0 ? node.left : node.right;
 		}
 
-		// Special case when deleting the root node.
-		else if (root.kvPair.key.equals(k)) {
-			root = lrMerge(root);
+		if (node == null) {
+			throw new KeyNotFoundInTableException();
 		}
 
-		// If the key at the current node is less than
-		// the search key, go to the left subtree.
-		else if (node.kvPair.key.lessThan(k)) {
-
-			// If the left subtree is empty, the tree cannot contain
-			// the search key.
-
-			if (node.left == null) {
-				throw new KeyNotFoundInTableException();
-			}
-
-			// If this is the parent of the node to be removed, do
-			// the removal.
-			if (node.left.kvPair.key.equals(k)) {
-				node.left = lrMerge(node.left);
-			}
-
-			// Otherwise, recurse down another level.
-			else {
-				removeFromTree(k, node.left);
+		if (node.left == null || node.right == null) {
+			// One or both subtrees are empty: link the other one to the
+			// parent in place of the node.
+			BSTreeNode child = (node.left == null) ? node.right : node.left;
+			replaceChild(depth == 0 ? null : path[depth - 1], node, child);
+		} else {
+			// Otherwise take over the entry of the right-most node of the
+			// left subtree and unlink that node instead. The walk carries on
+			// from here, so the tree is only searched once.
+			depth = push(depth, node);
+			BSTreeNode max = node.left;
+			while (max.right != null) {
+				depth = push(depth, max);
+				max = max.right;
 			}
+			node.kvPair = max.kvPair;
+			replaceChild(path[depth - 1], max, max.left);
 		}
 
-		// Otherwise go to the right subtree.
-		else {
-
-			// If the right subtree is empty, the tree cannot contain
-			// the search key.
+		retrace(depth);
+	}
 
-			if (node.right == null) {
-				throw new KeyNotFoundInTableException();
+	/**
+	 * Removes every key-value pair whose key is in keys, in a single in-order
+	 * walk of the tree; keys that are not in the table are ignored. The
+	 * surviving nodes are relinked into a perfectly balanced tree. Returns
+	 * the number of pairs removed.
+	 */
+	public int removeAll(Collection<String> keys) {
+		Set<String> doomed = (keys instanceof Set) ? (Set<String>) keys
+				: new HashSet<String>(keys);
+		ArrayList<BSTreeNode> survivors = new ArrayList<BSTreeNode>();
+		ArrayDeque<BSTreeNode> stack = new ArrayDeque<BSTreeNode>();
+		int removed = 0;
+
+		BSTreeNode node = root;
+		while (node != null || !stack.isEmpty()) {
+			while (node != null) {
+				stack.push(node);
+				node = node.left;
 			}
+			node = stack.pop();
 
-			// If this is the parent of the node to be removed, do
-			// the removal.
-			if (node.right.kvPair.key.equals(k)) {
-				node.right = lrMerge(node.right);
+			if (doomed.contains(node.kvPair.key.toString())) {
+				removed += 1;
+			} else {
+				survivors.add(node);
 			}
+			node = node.right;
+		}
 
-			// Otherwise, recurse down another level.
-			else {
-				removeFromTree(k, node.right);
-			}
+		if (removed > 0) {
+			root = buildBalanced(survivors, 0, survivors.size() - 1);
 		}
+		return removed;
 	}
 
 	/**
-	 * Merges the two subtrees of node prior to removal of the node from the
-	 * tree.
+	 * Replaces the contents of the look-up table with the pairs from an
+	 * iterator in ascending key order, building a perfectly balanced tree in
+	 * O(n) time without searching for any key. Throws
+	 * IllegalArgumentException, leaving the table unchanged, if a key is
+	 * less than the one before it.
 	 */
-	protected BSTreeNode lrMerge(BSTreeNode node) {
-
-		BSTreeNode mergedTrees = null;
-
-		// First two cases occur when one or both
-		// subtrees of the node to be deleted are empty.
-		if (node.left == null) {
-			mergedTrees = node.right;
-		} else if (node.right == null) {
-			mergedTrees = node.left;
-		}
-
-		// Otherwise, merge the left and right subtrees
-		// and link the merged structure to the current
-		// node.
-		else {
-			mergedTrees = node;
-			// Set node entry to that of the right-most leaf of it's left
-			// subtree and delete that leaf
-			mergedTrees.kvPair = deleteAndReturnMax(node.left).kvPair;
+	public void bulkLoad(Iterator<? extends Map.Entry<String, ?>> pairs) {
+		ArrayList<BSTreeNode> nodes = new ArrayList<BSTreeNode>();
+		Key previous = null;
+
+		while (pairs.hasNext()) {
+			Map.Entry<String, ?> pair = pairs.next();
+			Key key = new Key(pair.getKey());
+			if (previous != null && key.lessThan(previous)) {
+				throw new IllegalArgumentException("Keys not in ascending order: "
+						+ previous + " before " + key);
+			}
+			nodes.add(new BSTreeNode(new Entry(key, pair.getValue())));
+			previous = key;
 		}
 
-		return mergedTrees;
+		// Tree order is descending, as greater keys go to the left.
+		Collections.reverse(nodes);
+		root = buildBalanced(nodes, 0, nodes.size() - 1);
 	}
 
-	/*
-	 * Gets minimum node (rightmost leaf) in a sub-tree
+	/**
+	 * Adds every pair of other to this look-up table in O(n + m) time by
+	 * merging the two trees in order and rebuilding a perfectly balanced
+	 * tree. Pairs with the same key are all kept, as with insert. other is
+	 * left unchanged.
 	 */
-	private BSTreeNode deleteAndReturnMax(BSTreeNode self) {
-
-		BSTreeNode currentNode = self;
-
-		while (currentNode.right != null) {
-			currentNode = currentNode.right;
-		}
-
-		BSTreeNode result = currentNode;
-
-		// Replace with child if child exists, otherwise set to null
-		try {
-			remove(currentNode.kvPair.key.kString);
-		} catch (KeyNotFoundInTableException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+	public void merge(BinaryTreeLUT other) {
+		ArrayList<BSTreeNode> mine = inOrder(root);
+		ArrayList<BSTreeNode> theirs = inOrder(other.root);
+		ArrayList<BSTreeNode> merged = new ArrayList<BSTreeNode>(mine.size()
+				+ theirs.size());
+
+		// Both lists are in tree (descending) order. Our own nodes are
+		// relinked; those of other are copied so the two trees stay apart.
+		int i = 0;
+		int j = 0;
+		while (i < mine.size() || j < theirs.size()) {
+			if (j == theirs.size()
+					|| (i < mine.size() && !mine.get(i).kvPair.key
+							.lessThan(theirs.get(j).kvPair.key))) {
+				merged.add(mine.get(i++));
+			} else {
+				Entry e = theirs.get(j++).kvPair;
+				merged.add(new BSTreeNode(new Entry(e.key, e.value)));
+			}
 		}
 
-		return result;
-
+		root = buildBalanced(merged, 0, merged.size() - 1);
 	}
 
 	/**
@@ -254,6 +337,168 @@ public class BinaryTreeLUT {
 		treeNode.kvPair.value = value;
 	}
 
+	/**
+	 * Returns an iterator over the key-value pairs in ascending key order.
+	 */
+	public Iterator<Map.Entry<String, Object>> iterator() {
+		return new TreeIterator(null, null, false);
+	}
+
+	/**
+	 * Returns an iterator over the key-value pairs in descending key order.
+	 */
+	public Iterator<Map.Entry<String, Object>> descendingIterator() {
+		return new TreeIterator(null, null, true);
+	}
+
+	/**
+	 * Returns a view of the pairs with fromKey <= key < toKey, in ascending
+	 * key order. The view is evaluated lazily each time it is iterated.
+	 */
+	public Iterable<Map.Entry<String, Object>> range(String fromKey,
+			String toKey) {
+		return view(new Key(fromKey), new Key(toKey));
+	}
+
+	/**
+	 * Returns a view of the pairs with key < toKey, in ascending key order.
+	 */
+	public Iterable<Map.Entry<String, Object>> headMap(String toKey) {
+		return view(null, new Key(toKey));
+	}
+
+	/**
+	 * Returns a view of the pairs with key >= fromKey, in ascending key order.
+	 */
+	public Iterable<Map.Entry<String, Object>> tailMap(String fromKey) {
+		return view(new Key(fromKey), null);
+	}
+
+	/**
+	 * Returns the greatest key less than or equal to key, or null if there
+	 * is none.
+	 */
+	public String floor(String key) {
+		Key k = new Key(key);
+		BSTreeNode node = root;
+		BSTreeNode best = null;
+
+		while (node != null) {
+			int cmp = node.kvPair.key.compareTo(k);
+			if (cmp == 0) {
+				return key;
+			} else if (cmp < 0) {
+				// Candidate; anything closer is greater, i.e. to the left.
+				best = node;
+				node = node.left;
+			} else {
+				node = node.right;
+			}
+		}
+		return best == null ? null : best.kvPair.key.toString();
+	}
+
+	/**
+	 * Returns the least key greater than or equal to key, or null if there
+	 * is none.
+	 */
+	public String ceiling(String key) {
+		Key k = new Key(key);
+		BSTreeNode node = root;
+		BSTreeNode best = null;
+
+		while (node != null) {
+			int cmp = node.kvPair.key.compareTo(k);
+			if (cmp == 0) {
+				return key;
+			} else if (cmp > 0) {
+				// Candidate; anything closer is smaller, i.e. to the right.
+				best = node;
+				node = node.right;
+			} else {
+				node = node.left;
+			}
+		}
+		return best == null ? null : best.kvPair.key.toString();
+	}
+
+	/**
+	 * Returns an immutable, array-packed copy of the look-up table for
+	 * read-only use. Later changes to this table do not affect it.
+	 */
+	public FrozenLUT freeze() {
+		int n = size();
+		String[] keys = new String[n];
+		Object[] values = new Object[n];
+
+		int i = 0;
+		for (Map.Entry<String, Object> e : this) {
+			keys[i] = e.getKey();
+			values[i] = e.getValue();
+			i += 1;
+		}
+		return new FrozenLUT(keys, values, n);
+	}
+
+	/**
+	 * Returns the number of key-value pairs in the look-up table.
+	 */
+	public int size() {
+		return size(root);
+	}
+
+	/**
+	 * Returns the number of keys in the look-up table that are less than key.
+	 */
+	public int rank(String key) {
+		Key k = new Key(key);
+		BSTreeNode node = root;
+		int rank = 0;
+
+		while (node != null) {
+			if (node.kvPair.key.lessThan(k)) {
+				// The node and its right subtree hold smaller keys.
+				rank += 1 + size(node.right);
+				node = node.left;
+			} else {
+				node = node.right;
+			}
+		}
+		return rank;
+	}
+
+	/**
+	 * Returns the key with index k (from 0) in ascending order, so that
+	 * select(rank(key)) is key if key is in the table.
+	 */
+	public String select(int k) {
+		if (k < 0 || k >= size()) {
+			throw new IndexOutOfBoundsException("Index: " + k + ", Size: "
+					+ size());
+		}
+
+		// The smallest keys are in the right subtree.
+		BSTreeNode node = root;
+		while (true) {
+			int smaller = size(node.right);
+			if (k < smaller) {
+				node = node.right;
+			} else if (k == smaller) {
+				return node.kvPair.key.toString();
+			} else {
+				k -= smaller + 1;
+				node = node.left;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of pairs with fromKey <= key < toKey.
+	 */
+	public int countRange(String fromKey, String toKey) {
+		return Math.max(0, rank(toKey) - rank(fromKey));
+	}
+
 	/**
 	 * Returns a string listing all the key-entry pairs in the LUT
 	 */
@@ -261,32 +506,41 @@ public class BinaryTreeLUT {
 		return treeString(root);
 	}
 
-	// protected methods implementing recursive operations on the tree.
+	// protected methods implementing operations on the tree.
 
 	/**
-	 * Adds newNode to the tree rooted at curNode recursively.
+	 * Adds newNode to the tree.
 	 */
-	protected void addToTree(BSTreeNode newNode, BSTreeNode curNode) {
+	protected void addToTree(BSTreeNode newNode) {
 
 		// Special case for empty tree.
-		if (curNode == null) {
+		if (root == null) {
 			root = newNode;
+			return;
 		}
 
-		// General case: recurse left or right depending on comparison.
-		else if (curNode.kvPair.key.lessThan(newNode.kvPair.key)) {
-			if (curNode.left == null) {
-				curNode.left = newNode;
-			} else {
-				addToTree(newNode, curNode.left);
-			}
-		} else {
-			if (curNode.right == null) {
-				curNode.right = newNode;
+		// General case: go left or right depending on comparison until a
+		// free place is found, recording the path.
+		int depth = 0;
+		BSTreeNode curNode = root;
+		while (true) {
+			depth = push(depth, curNode);
+			if (curNode.kvPair.key.lessThan(newNode.kvPair.key)) {
+				if (curNode.left == null) {
+					curNode.left = newNode;
+					break;
+				}
+				curNode = curNode.left;
 			} else {
-				addToTree(newNode, curNode.right);
+				if (curNode.right == null) {
+					curNode.right = newNode;
+					break;
+				}
+				curNode = curNode.right;
 			}
 		}
+
+		retrace(depth);
 	}
 
 	/**
@@ -295,15 +549,15 @@ public class BinaryTreeLUT {
 	protected BSTreeNode getFromTree(Key k, BSTreeNode node)
 			throws KeyNotFoundInTableException {
 
-		if (node == null) {
-			throw new KeyNotFoundInTableException();
-		} else if (node.kvPair.key.equals(k)) {
-			return node;
-		} else if (node.kvPair.key.lessThan(k)) {
-			return getFromTree(k, node.left);
-		} else {
-			return getFromTree(k, node.right);
+		while (node != null) {
+			int cmp = node.kvPair.key.compareTo(k);
+			if (cmp == 0) {
+				return node;
+			}
+			node = cmp < 0 ? node.left : node.right;
 		}
+
+		throw new KeyNotFoundInTableException();
 	}
 
 	/**
@@ -311,17 +565,264 @@ public class BinaryTreeLUT {
 	 * value pairs in the binary search tree.
 	 */
 	protected String treeString(BSTreeNode node) {
-		if (node == null) {
-			return "";
+		StringBuilder str = new StringBuilder();
+		ArrayDeque<BSTreeNode> stack = new ArrayDeque<BSTreeNode>();
+
+		while (node != null || !stack.isEmpty()) {
+			while (node != null) {
+				stack.push(node);
+				node = node.left;
+			}
+			node = stack.pop();
+
+			Entry lutEntry = node.kvPair;
+			str.append(lutEntry.key.toString());
+			str.append(":");
+			str.append(lutEntry.value);
+			str.append(", ");
+
+			node = node.right;
 		}
 
-		Entry lutEntry = node.kvPair;
-		String thisNode = "";
-		thisNode = lutEntry.key.toString();
-		thisNode += ":";
-		thisNode += lutEntry.value;
-		thisNode += ", ";
+		return str.toString();
+	}
+
+	/**
+	 * Links the nodes[lo..hi], which are in tree order, into a perfectly
+	 * balanced tree and returns its root. The recursion is only O(log n)
+	 * deep.
+	 */
+	protected BSTreeNode buildBalanced(List<BSTreeNode> nodes, int lo, int hi) {
+		if (lo > hi) {
+			return null;
+		}
+
+		int mid = (lo + hi) >>> 1;
+		BSTreeNode node = nodes.get(mid);
+		node.left = buildBalanced(nodes, lo, mid - 1);
+		node.right = buildBalanced(nodes, mid + 1, hi);
+		updateNode(node);
+		return node;
+	}
+
+	/**
+	 * Returns the nodes of the tree rooted at node in tree order.
+	 */
+	protected ArrayList<BSTreeNode> inOrder(BSTreeNode node) {
+		ArrayList<BSTreeNode> nodes = new ArrayList<BSTreeNode>();
+		ArrayDeque<BSTreeNode> stack = new ArrayDeque<BSTreeNode>();
+
+		while (node != null || !stack.isEmpty()) {
+			while (node != null) {
+				stack.push(node);
+				node = node.left;
+			}
+			node = stack.pop();
+			nodes.add(node);
+			node = node.right;
+		}
+		return nodes;
+	}
+
+	private Iterable<Map.Entry<String, Object>> view(final Key lo,
+			final Key hi) {
+		return new Iterable<Map.Entry<String, Object>>() {
+			public Iterator<Map.Entry<String, Object>> iterator() {
+				return new TreeIterator(lo, hi, false);
+			}
+		};
+	}
+
+	/**
+	 * Lazy in-order iterator over the pairs with lo <= key < hi (a null
+	 * bound is open). Remember that the tree is stored in reverse order:
+	 * greater keys are in the left subtree. The stack holds the nodes still
+	 * to be visited on the path from the root to the next node.
+	 */
+	private class TreeIterator implements Iterator<Map.Entry<String, Object>> {
+
+		private final ArrayDeque<BSTreeNode> stack = new ArrayDeque<BSTreeNode>();
+		private final Key lo;
+		private final Key hi;
+		private final boolean descending;
+		private BSTreeNode next;
+
+		TreeIterator(Key lo, Key hi, boolean descending) {
+			this.lo = lo;
+			this.hi = hi;
+			this.descending = descending;
+
+			// Seek to the first node inside the bound we start from,
+			// stacking every node on the way that still has to be visited.
+			BSTreeNode node = root;
+			while (node != null) {
+				if (descending ? (hi == null || node.kvPair.key.lessThan(hi))
+						: (lo == null || !node.kvPair.key.lessThan(lo))) {
+					stack.push(node);
+					node = descending ? node.left : node.right;
+				} else {
+					node = descending ? node.right : node.left;
+				}
+			}
+			advance();
+		}
+
+		private void advance() {
+			if (stack.isEmpty()) {
+				next = null;
+				return;
+			}
+			next = stack.pop();
+
+			// Stop once we pass the bound at the other end.
+			if (descending ? (lo != null && next.kvPair.key.lessThan(lo))
+					: (hi != null && !next.kvPair.key.lessThan(hi))) {
+				next = null;
+				stack.clear();
+				return;
+			}
+
+			BSTreeNode node = descending ? next.right : next.left;
+			while (node != null) {
+				stack.push(node);
+				node = descending ? node.left : node.right;
+			}
+		}
+
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		public Map.Entry<String, Object> next() {
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			Entry e = next.kvPair;
+			advance();
+			return new AbstractMap.SimpleImmutableEntry<String, Object>(
+					e.key.toString(), e.value);
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	// private methods maintaining the path stack and the AVL balance.
+
+	/**
+	 * Pushes node onto the path stack at position depth and returns the new
+	 * depth.
+	 */
+	private int push(int depth, BSTreeNode node) {
+		if (depth == path.length) {
+			path = Arrays.copyOf(path, depth * 2);
+		}
+		path[depth] = node;
+		return depth + 1;
+	}
+
+	/**
+	 * Links child into parent in place of oldChild; a null parent means
+	 * oldChild is the root.
+	 */
+	private void replaceChild(BSTreeNode parent, BSTreeNode oldChild,
+			BSTreeNode child) {
+		if (parent == null) {
+			root = child;
+		} else if (parent.left == oldChild) {
+			parent.left = child;
+		} else {
+			parent.right = child;
+		}
+	}
+
+	/**
+	 * Walks back up the first depth nodes of the path after an insertion or
+	 * removal below them, updating the subtree sizes and restoring the AVL
+	 * balance in balanced mode. The path stack is cleared on the way so it
+	 * does not keep nodes alive.
+	 */
+	private void retrace(int depth) {
+		boolean changed = balanced;
+
+		for (int i = depth - 1; i >= 0; i--) {
+			BSTreeNode node = path[i];
+			path[i] = null;
+
+			if (changed) {
+				int oldHeight = node.height;
+				BSTreeNode subtree = rebalance(node);
+
+				if (subtree != node) {
+					replaceChild(i == 0 ? null : path[i - 1], node, subtree);
+				} else if (node.height == oldHeight) {
+					// No height above this point can have changed.
+					changed = false;
+				}
+			} else {
+				updateSize(node);
+			}
+		}
+	}
+
+	private int height(BSTreeNode node) {
+		return node == null ? 0 : node.height;
+	}
+
+	private int size(BSTreeNode node) {
+		return node == null ? 0 : node.size;
+	}
+
+	private void updateSize(BSTreeNode node) {
+		node.size = 1 + size(node.left) + size(node.right);
+	}
+
+	/**
+	 * Recomputes the height and size of node from those of its subtrees.
+	 */
+	private void updateNode(BSTreeNode node) {
+		node.height = 1 + Math.max(height(node.left), height(node.right));
+		updateSize(node);
+	}
+
+	/**
+	 * Restores the AVL property at node, whose subtrees differ in height by
+	 * at most two, and returns the root of the resulting subtree.
+	 */
+	private BSTreeNode rebalance(BSTreeNode node) {
+		updateNode(node);
+		int balance = height(node.left) - height(node.right);
+
+		if (balance > 1) {
+			if (height(node.left.left) < height(node.left.right)) {
+				node.left = rotateLeft(node.left);
+			}
+			return rotateRight(node);
+		} else if (balance < -1) {
+			if (height(node.right.right) < height(node.right.left)) {
+				node.right = rotateRight(node.right);
+			}
+			return rotateLeft(node);
+		}
+		return node;
+	}
+
+	private BSTreeNode rotateRight(BSTreeNode node) {
+		BSTreeNode pivot = node.left;
+		node.left = pivot.right;
+		pivot.right = node;
+		updateNode(node);
+		updateNode(pivot);
+		return pivot;
+	}
 
-		return treeString(node.left)+ thisNode + treeString(node.right) ;
+	private BSTreeNode rotateLeft(BSTreeNode node) {
+		BSTreeNode pivot = node.right;
+		node.right = pivot.left;
+		pivot.left = node;
+		updateNode(node);
+		updateNode(pivot);
+		return pivot;
 	}
 }
@@ -14,6 +14,14 @@ public class BinaryTreeLUTTest {
 			myLUT.insert("John", new Integer(67));
 			System.out.println(myLUT);
 
+			// Ordered enumeration, range scans and floor/ceiling lookups.
+			for (java.util.Map.Entry<String, Object> e : myLUT.range("B", "P")) {
+				System.out.print(e.getKey() + "=" + e.getValue() + " ");
+			}
+			System.out.println();
+			System.out.println("floor(Jim) = " + myLUT.floor("Jim")
+					+ ", ceiling(Jim) = " + myLUT.ceiling("Jim"));
+
 			myLUT.remove("Helena");
 			System.out.println(myLUT);
 
@@ -29,6 +37,53 @@ public class BinaryTreeLUTTest {
 			myLUT.remove("Andrew");
 			System.out.println(myLUT);
 
+			// Keys inserted in sorted order keep a balanced tree O(log n) deep.
+			BinaryTreeLUT balancedLUT = new BinaryTreeLUT(true);
+			for (int i = 0; i < 100000; i++) {
+				balancedLUT.insert(String.format("Key%06d", i), new Integer(i));
+			}
+			for (int i = 0; i < 100000; i += 2) {
+				balancedLUT.remove(String.format("Key%06d", i));
+			}
+			System.out.println("Key054321 -> "
+					+ balancedLUT.retrieve("Key054321"));
+
+			// Prune many keys in one walk of the tree.
+			java.util.List<String> doomed = new java.util.ArrayList<String>();
+			for (int i = 1; i < 100000; i += 4) {
+				doomed.add(String.format("Key%06d", i));
+			}
+			System.out.println("Removed " + balancedLUT.removeAll(doomed)
+					+ " keys, Key054323 -> " + balancedLUT.retrieve("Key054323"));
+
+			// Rebuild from sorted input in linear time, then merge in another
+			// table.
+			java.util.TreeMap<String, Object> sorted = new java.util.TreeMap<String, Object>();
+			for (int i = 0; i < 100000; i++) {
+				sorted.put(String.format("Key%06d", i), new Integer(i));
+			}
+			BinaryTreeLUT loadedLUT = new BinaryTreeLUT(true);
+			loadedLUT.bulkLoad(sorted.entrySet().iterator());
+			BinaryTreeLUT extraLUT = new BinaryTreeLUT();
+			extraLUT.insert("Key100000", new Integer(100000));
+			extraLUT.insert("Key-0001", new Integer(-1));
+			loadedLUT.merge(extraLUT);
+			System.out.println("Key100000 -> " + loadedLUT.retrieve("Key100000")
+					+ ", floor(Key0) = " + loadedLUT.floor("Key0"));
+
+			// Order statistics: percentiles and counts without a full scan.
+			System.out.println("Size " + loadedLUT.size() + ", median "
+					+ loadedLUT.select(loadedLUT.size() / 2) + ", 99th percentile "
+					+ loadedLUT.select(loadedLUT.size() * 99 / 100));
+			System.out.println("rank(Key050000) = " + loadedLUT.rank("Key050000")
+					+ ", keys in [Key010000, Key020000) = "
+					+ loadedLUT.countRange("Key010000", "Key020000"));
+
+			// Freeze a table that is only read from now on.
+			FrozenLUT frozenLUT = loadedLUT.freeze();
+			System.out.println("Frozen " + frozenLUT.size()
+					+ " keys, Key054321 -> " + frozenLUT.retrieve("Key054321"));
+
 		} catch (Exception e) {
 			System.out.println(e);
 		}
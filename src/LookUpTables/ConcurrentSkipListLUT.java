@@ -0,0 +1,512 @@
+package LookUpTables;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <dl>
+ * <dt>Purpose: Thread-safe ordered LUT using a lazy skip list.
+ * <dd>
+ *
+ * <dt>Description:
+ * <dd>This class is an implementation of the look-up table abstract data type
+ * that many threads can use at once. It is the lazy skip list of Herlihy,
+ * Lev, Luchangco and Shavit: retrieve() takes no lock and never waits, it
+ * just follows the links, which are read with volatile semantics. Writers
+ * lock only the few nodes whose links they change (the predecessors of the
+ * key at each level), validate that nothing changed underneath them and then
+ * link or unlink, so writers working on different parts of the key space do
+ * not contend.
+ * 
+ * <dd>A node is logically removed when it is marked and becomes visible when
+ * it is fully linked, which makes every operation linearizable. Keys are
+ * unique: inserting an existing key replaces its value. The elements are
+ * stored in ascending alphabetical order.
+ *
+ * <dd>The ordered operations of BinaryTreeLUT are offered too. floor() and
+ * ceiling() search like retrieve(). The iterators and range views walk the
+ * bottom level, skipping nodes that are marked or not yet fully linked. They
+ * are weakly consistent: they never fail or return an entry twice, and they
+ * see every entry present throughout the walk, but may or may not see
+ * entries inserted or removed meanwhile. Descending iteration searches
+ * afresh for each predecessor, so each step takes O(log n) time.
+ * </dl>
+ *
+ * @author Sami Start
+ */
+public class ConcurrentSkipListLUT implements
+		Iterable<Map.Entry<String, Object>> {
+
+	// With a level promotion probability of 1/4, 16 levels are enough for
+	// billions of keys.
+	private static final int MAX_LEVEL = 16;
+
+	/**
+	 * The member class Node holds an entry and its links, one per level up
+	 * to topLevel. The head and tail sentinels have null keys.
+	 */
+	protected static final class Node {
+
+		Node(String key, Object value, int topLevel) {
+			this.key = key;
+			this.value = value;
+			this.topLevel = topLevel;
+			next = new AtomicReferenceArray<Node>(topLevel + 1);
+		}
+
+		protected final String key;
+		protected volatile Object value;
+		protected final AtomicReferenceArray<Node> next;
+		protected final int topLevel;
+		protected final ReentrantLock lock = new ReentrantLock();
+		protected volatile boolean marked;
+		protected volatile boolean fullyLinked;
+	}
+
+	protected final Node head;
+	protected final Node tail;
+	private final LongAdder size = new LongAdder();
+
+	/**
+	 * Default constructor - no need to specify capacity of LUT.
+	 */
+	public ConcurrentSkipListLUT() {
+		head = new Node(null, null, MAX_LEVEL - 1);
+		tail = new Node(null, null, MAX_LEVEL - 1);
+		for (int level = 0; level < MAX_LEVEL; level++) {
+			head.next.set(level, tail);
+		}
+		head.fullyLinked = true;
+		tail.fullyLinked = true;
+	}
+
+	/**
+	 * Inserts a new key-value pair into the look-up table, replacing the
+	 * value if the key is already present.
+	 */
+	public void insert(String key, Object value) {
+		int topLevel = randomLevel();
+		Node[] preds = new Node[MAX_LEVEL];
+		Node[] succs = new Node[MAX_LEVEL];
+
+		while (true) {
+			int found = find(key, preds, succs);
+			if (found != -1) {
+				Node node = succs[found];
+				if (!node.marked) {
+					// Wait for a concurrent insert of the key to finish.
+					while (!node.fullyLinked) {
+						Thread.yield();
+					}
+					node.value = value;
+					return;
+				}
+				// Being removed: try again once it is gone.
+				continue;
+			}
+
+			int highestLocked = -1;
+			try {
+				boolean valid = true;
+				for (int level = 0; valid && level <= topLevel; level++) {
+					Node pred = preds[level];
+					Node succ = succs[level];
+					pred.lock.lock();
+					highestLocked = level;
+					valid = !pred.marked && !succ.marked
+							&& pred.next.get(level) == succ;
+				}
+				if (!valid) {
+					continue;
+				}
+
+				Node node = new Node(key, value, topLevel);
+				for (int level = 0; level <= topLevel; level++) {
+					node.next.set(level, succs[level]);
+				}
+				for (int level = 0; level <= topLevel; level++) {
+					preds[level].next.set(level, node);
+				}
+				node.fullyLinked = true;
+				size.increment();
+				return;
+			} finally {
+				for (int level = 0; level <= highestLocked; level++) {
+					preds[level].lock.unlock();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Retrieves the value stored with the specified key. Never blocks.
+	 */
+	public Object retrieve(String key) throws KeyNotFoundInTableException {
+		return getNode(key).value;
+	}
+
+	/**
+	 * Updates the key-value pair with the specified key with the new specified
+	 * value.
+	 */
+	public void update(String key, Object value)
+			throws KeyNotFoundInTableException {
+		getNode(key).value = value;
+	}
+
+	/**
+	 * Removes the key-value pair with the specified key from the look-up table.
+	 */
+	public void remove(String key) throws KeyNotFoundInTableException {
+		Node[] preds = new Node[MAX_LEVEL];
+		Node[] succs = new Node[MAX_LEVEL];
+		Node victim = null;
+		boolean isMarked = false;
+		int topLevel = -1;
+
+		while (true) {
+			int found = find(key, preds, succs);
+			if (found != -1) {
+				victim = succs[found];
+			}
+
+			if (!isMarked
+					&& !(found != -1 && victim.fullyLinked
+							&& victim.topLevel == found && !victim.marked)) {
+				throw new KeyNotFoundInTableException();
+			}
+
+			// Mark the victim first: from then on it is logically removed
+			// and this thread owns its removal.
+			if (!isMarked) {
+				topLevel = victim.topLevel;
+				victim.lock.lock();
+				if (victim.marked) {
+					victim.lock.unlock();
+					throw new KeyNotFoundInTableException();
+				}
+				victim.marked = true;
+				isMarked = true;
+			}
+
+			int highestLocked = -1;
+			try {
+				boolean valid = true;
+				for (int level = 0; valid && level <= topLevel; level++) {
+					Node pred = preds[level];
+					pred.lock.lock();
+					highestLocked = level;
+					valid = !pred.marked && pred.next.get(level) == victim;
+				}
+				if (!valid) {
+					continue;
+				}
+
+				for (int level = topLevel; level >= 0; level--) {
+					preds[level].next.set(level, victim.next.get(level));
+				}
+				victim.lock.unlock();
+				size.decrement();
+				return;
+			} finally {
+				for (int level = 0; level <= highestLocked; level++) {
+					preds[level].lock.unlock();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes every key-value pair whose key is in keys; keys that are not
+	 * in the table are ignored. Returns the number of pairs removed. Each key
+	 * is removed by its own call to remove(), so the operation as a whole is
+	 * not atomic: other threads may see some of the keys gone and others not
+	 * yet, and a key inserted again meanwhile may or may not be removed.
+	 */
+	public int removeAll(Collection<String> keys) {
+		int removed = 0;
+		for (String key : keys) {
+			try {
+				remove(key);
+				removed += 1;
+			} catch (KeyNotFoundInTableException e) {
+				// Not present, or already removed by another thread.
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * Returns an iterator over the key-value pairs in ascending key order.
+	 */
+	public Iterator<Map.Entry<String, Object>> iterator() {
+		return new SkipListIterator(null, null, false);
+	}
+
+	/**
+	 * Returns an iterator over the key-value pairs in descending key order.
+	 */
+	public Iterator<Map.Entry<String, Object>> descendingIterator() {
+		return new SkipListIterator(null, null, true);
+	}
+
+	/**
+	 * Returns a view of the pairs with fromKey <= key < toKey, in ascending
+	 * key order. The view is evaluated lazily each time it is iterated.
+	 */
+	public Iterable<Map.Entry<String, Object>> range(String fromKey,
+			String toKey) {
+		return view(fromKey, toKey);
+	}
+
+	/**
+	 * Returns a view of the pairs with key < toKey, in ascending key order.
+	 */
+	public Iterable<Map.Entry<String, Object>> headMap(String toKey) {
+		return view(null, toKey);
+	}
+
+	/**
+	 * Returns a view of the pairs with key >= fromKey, in ascending key order.
+	 */
+	public Iterable<Map.Entry<String, Object>> tailMap(String fromKey) {
+		return view(fromKey, null);
+	}
+
+	/**
+	 * Returns the greatest key less than or equal to key, or null if there
+	 * is none.
+	 */
+	public String floor(String key) {
+		Node node = findLast(key, true);
+		return node == head ? null : node.key;
+	}
+
+	/**
+	 * Returns the least key greater than or equal to key, or null if there
+	 * is none.
+	 */
+	public String ceiling(String key) {
+		Node node = findFirst(key);
+		return node == tail ? null : node.key;
+	}
+
+	/**
+	 * Returns the number of key-value pairs in the look-up table. While
+	 * writers are active this is an estimate.
+	 */
+	public int size() {
+		return size.intValue();
+	}
+
+	/**
+	 * Returns a string listing all the key-entry pairs in the LUT. Entries
+	 * inserted or removed concurrently may or may not be included.
+	 */
+	public String toString() {
+		StringBuilder str = new StringBuilder();
+		for (Node node = head.next.get(0); node != tail; node = node.next
+				.get(0)) {
+			if (node.fullyLinked && !node.marked) {
+				str.append(node.key).append(":").append(node.value)
+						.append(", ");
+			}
+		}
+		return str.toString();
+	}
+
+	// private methods implementing the skip list.
+
+	private static boolean live(Node node) {
+		return node.fullyLinked && !node.marked;
+	}
+
+	/**
+	 * Returns the first live node with a key >= key, or tail if there is
+	 * none. A null key is less than every key.
+	 */
+	private Node findFirst(String key) {
+		Node pred = head;
+		if (key != null) {
+			for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+				Node curr = pred.next.get(level);
+				while (compare(curr, key) < 0) {
+					pred = curr;
+					curr = pred.next.get(level);
+				}
+			}
+		}
+
+		Node node = pred.next.get(0);
+		while (node != tail && !live(node)) {
+			node = node.next.get(0);
+		}
+		return node;
+	}
+
+	/**
+	 * Returns the last live node with a key < key, or <= key if inclusive,
+	 * or head if there is none. A null key is greater than every key.
+	 */
+	private Node findLast(String key, boolean inclusive) {
+		while (true) {
+			Node pred = head;
+			for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+				Node curr = pred.next.get(level);
+				while (curr != tail) {
+					int cmp = key == null ? -1 : curr.key.compareTo(key);
+					if (cmp > 0 || (cmp == 0 && !inclusive)) {
+						break;
+					}
+					pred = curr;
+					curr = pred.next.get(level);
+				}
+			}
+			if (pred == head || live(pred)) {
+				return pred;
+			}
+
+			// The candidate is being inserted or removed: look before it.
+			key = pred.key;
+			inclusive = false;
+		}
+	}
+
+	private Iterable<Map.Entry<String, Object>> view(final String lo,
+			final String hi) {
+		return new Iterable<Map.Entry<String, Object>>() {
+			public Iterator<Map.Entry<String, Object>> iterator() {
+				return new SkipListIterator(lo, hi, false);
+			}
+		};
+	}
+
+	/**
+	 * Weakly consistent iterator over the pairs with lo <= key < hi (a null
+	 * bound is open). Going up, it follows the bottom-level links, which a
+	 * removed node keeps, so it carries on correctly from a node removed
+	 * after it was reached. Going down, it searches for the predecessor of
+	 * the last key returned.
+	 */
+	private class SkipListIterator implements
+			Iterator<Map.Entry<String, Object>> {
+
+		private final String lo;
+		private final String hi;
+		private final boolean descending;
+		private Node next;
+
+		SkipListIterator(String lo, String hi, boolean descending) {
+			this.lo = lo;
+			this.hi = hi;
+			this.descending = descending;
+			next = descending ? findLast(hi, false) : findFirst(lo);
+			checkBound();
+		}
+
+		private void advance() {
+			if (descending) {
+				next = findLast(next.key, false);
+			} else {
+				do {
+					next = next.next.get(0);
+				} while (next != tail && !live(next));
+			}
+			checkBound();
+		}
+
+		// Stop once we pass the bound at the other end.
+		private void checkBound() {
+			if (next == head || next == tail) {
+				next = null;
+			} else if (descending ? (lo != null && next.key.compareTo(lo) < 0)
+					: (hi != null && next.key.compareTo(hi) >= 0)) {
+				next = null;
+			}
+		}
+
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		public Map.Entry<String, Object> next() {
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			Node node = next;
+			advance();
+			return new AbstractMap.SimpleImmutableEntry<String, Object>(
+					node.key, node.value);
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	private Node getNode(String key) throws KeyNotFoundInTableException {
+		Node pred = head;
+		for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+			Node curr = pred.next.get(level);
+			int cmp;
+			while ((cmp = compare(curr, key)) < 0) {
+				pred = curr;
+				curr = pred.next.get(level);
+			}
+			if (cmp == 0) {
+				if (curr.fullyLinked && !curr.marked) {
+					return curr;
+				}
+				break;
+			}
+		}
+		throw new KeyNotFoundInTableException();
+	}
+
+	/**
+	 * Fills in the predecessor and successor of key at every level and
+	 * returns the highest level at which the successor holds key, or -1.
+	 */
+	private int find(String key, Node[] preds, Node[] succs) {
+		int found = -1;
+		Node pred = head;
+		for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+			Node curr = pred.next.get(level);
+			int cmp;
+			while ((cmp = compare(curr, key)) < 0) {
+				pred = curr;
+				curr = pred.next.get(level);
+			}
+			if (found == -1 && cmp == 0) {
+				found = level;
+			}
+			preds[level] = pred;
+			succs[level] = curr;
+		}
+		return found;
+	}
+
+	/**
+	 * Compares the key of node with key; the tail sorts after every key.
+	 */
+	private int compare(Node node, String key) {
+		return node == tail ? 1 : node.key.compareTo(key);
+	}
+
+	private static int randomLevel() {
+		int random = ThreadLocalRandom.current().nextInt();
+		int level = 0;
+		while ((random & 3) == 0 && level < MAX_LEVEL - 1) {
+			level += 1;
+			random >>>= 2;
+		}
+		return level;
+	}
+}
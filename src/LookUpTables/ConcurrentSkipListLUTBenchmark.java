@@ -0,0 +1,129 @@
+package LookUpTables;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how ConcurrentSkipListLUT scales with the number of threads,
+ * against a balanced BinaryTreeLUT behind one global lock, for a read-mostly
+ * and a write-heavy mix of operations. Pass the largest thread count as the
+ * first argument (default 64).
+ */
+public class ConcurrentSkipListLUTBenchmark {
+
+	private static final int KEYS = 1 << 16;
+	private static final long RUN_MILLIS = 1000;
+
+	/**
+	 * The operations exercised by the benchmark, so that both tables can be
+	 * driven by the same loop.
+	 */
+	private interface Target {
+		void update(String key, Object value) throws Exception;
+
+		Object retrieve(String key) throws Exception;
+	}
+
+	public static void main(String[] args) throws Exception {
+		int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+
+		String[] keys = new String[KEYS];
+		for (int i = 0; i < KEYS; i++) {
+			keys[i] = String.format("Key%06d", i);
+		}
+
+		final BinaryTreeLUT tree = new BinaryTreeLUT(true);
+		final ConcurrentSkipListLUT skipList = new ConcurrentSkipListLUT();
+		for (int i = 0; i < KEYS; i++) {
+			tree.insert(keys[i], new Integer(i));
+			skipList.insert(keys[i], new Integer(i));
+		}
+
+		Target locked = new Target() {
+			public synchronized void update(String key, Object value)
+					throws Exception {
+				tree.update(key, value);
+			}
+
+			public synchronized Object retrieve(String key) throws Exception {
+				return tree.retrieve(key);
+			}
+		};
+		Target concurrent = new Target() {
+			public void update(String key, Object value) {
+				// Writers really relink nodes rather than just swapping
+				// values.
+				try {
+					skipList.remove(key);
+				} catch (KeyNotFoundInTableException e) {
+					// Removed by another writer; insert it again below.
+				}
+				skipList.insert(key, value);
+			}
+
+			public Object retrieve(String key) throws Exception {
+				try {
+					return skipList.retrieve(key);
+				} catch (KeyNotFoundInTableException e) {
+					// Briefly absent while a writer relinks it.
+					return null;
+				}
+			}
+		};
+
+		for (int writePercent : new int[] { 10, 50 }) {
+			System.out.println(writePercent + "% writes");
+			System.out.println("threads  global lock (Mops/s)  skip list (Mops/s)");
+			for (int threads = 1; threads <= maxThreads; threads *= 2) {
+				System.out.printf("%7d  %20.2f  %18.2f%n", threads,
+						run(threads, writePercent, keys, locked),
+						run(threads, writePercent, keys, concurrent));
+			}
+		}
+	}
+
+	/**
+	 * Run the mixed workload on the given number of threads and return the
+	 * throughput in millions of operations per second.
+	 */
+	private static double run(int threads, final int writePercent,
+			final String[] keys, final Target target)
+			throws InterruptedException {
+		final AtomicLong operations = new AtomicLong();
+		final long deadline = System.currentTimeMillis() + RUN_MILLIS;
+		Thread[] workers = new Thread[threads];
+
+		for (int t = 0; t < threads; t++) {
+			final int seed = t;
+			workers[t] = new Thread(new Runnable() {
+				public void run() {
+					Random random = new Random(seed);
+					long done = 0;
+					try {
+						while ((done & 1023) != 0
+								|| System.currentTimeMillis() < deadline) {
+							int i = random.nextInt(KEYS);
+							if (random.nextInt(100) < writePercent) {
+								target.update(keys[i], new Integer(i));
+							} else {
+								target.retrieve(keys[i]);
+							}
+							done += 1;
+						}
+					} catch (Exception e) {
+						e.printStackTrace();
+					}
+					operations.addAndGet(done);
+				}
+			});
+			workers[t].start();
+		}
+
+		long start = System.nanoTime();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		return operations.get() / seconds / 1e6;
+	}
+}
@@ -0,0 +1,69 @@
+package LookUpTables;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+
+public class ConcurrentSkipListLUTTest {
+	public static void main(String[] args) throws InterruptedException {
+		final ConcurrentSkipListLUT myLUT = new ConcurrentSkipListLUT();
+
+		myLUT.insert("Priscilla", new Integer(41));
+		myLUT.insert("Travis", new Integer(34));
+		myLUT.insert("Samuel", new Integer(28));
+		myLUT.insert("Helena", new Integer(39));
+		System.out.println(myLUT);
+
+		// One ingest thread updates the table while readers query it.
+		Thread writer = new Thread(new Runnable() {
+			public void run() {
+				for (int i = 0; i < 10000; i++) {
+					myLUT.insert(String.format("Key%05d", i), new Integer(i));
+				}
+			}
+		});
+		Thread reader = new Thread(new Runnable() {
+			public void run() {
+				int hits = 0;
+				for (int i = 0; i < 10000; i++) {
+					try {
+						myLUT.retrieve("Samuel");
+						hits += 1;
+					} catch (KeyNotFoundInTableException e) {
+						System.out.println(e);
+					}
+				}
+				System.out.println("Reader found Samuel " + hits + " times");
+			}
+		});
+		writer.start();
+		reader.start();
+		writer.join();
+		reader.join();
+		System.out.println("Size: " + myLUT.size());
+
+		// Ordered queries walk the bottom level of the list.
+		System.out.println("floor(\"Pam\"): " + myLUT.floor("Pam")
+				+ ", ceiling(\"Pam\"): " + myLUT.ceiling("Pam"));
+		System.out.print("range(\"Key09997\", \"Samuel\"):");
+		for (Map.Entry<String, Object> e : myLUT.range("Key09997", "Samuel")) {
+			System.out.print(" " + e.getKey());
+		}
+		System.out.println();
+		System.out.println("removeAll() removed "
+				+ myLUT.removeAll(Arrays.asList("Key00000", "Key00001", "Nobody"))
+				+ " keys, size: " + myLUT.size());
+		Iterator<Map.Entry<String, Object>> down = myLUT.descendingIterator();
+		System.out.println("Greatest keys: " + down.next().getKey() + ", "
+				+ down.next().getKey());
+
+		try {
+			myLUT.update("Samuel", new Integer(29));
+			myLUT.remove("Travis");
+			System.out.println("Samuel -> " + myLUT.retrieve("Samuel"));
+			myLUT.retrieve("Travis");
+		} catch (KeyNotFoundInTableException e) {
+			System.out.println(e);
+		}
+	}
+}
@@ -0,0 +1,658 @@
+package LookUpTables;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * <dl>
+ * <dt>Purpose: Implementation of LUT using a disk-resident B+tree.
+ * <dd>
+ *
+ * <dt>Description:
+ * <dd>This class is an implementation of the look-up table abstract data type
+ * that keeps its entries in a B+tree stored in a file, so the table can be
+ * larger than the heap. The file is divided into fixed-size pages that are
+ * read and written through a FileChannel. A bounded cache holds the most
+ * recently used pages in decoded form; the least recently used page is
+ * evicted (and written back if it has changed) when the cache is full.
+ * 
+ * <dd>All entries are in the leaves, which are linked in key order so that
+ * range() scans them without going back up the tree. Keys are strings of at
+ * most maxKeyBytes bytes in UTF-8 and values are longs. Keys are unique:
+ * inserting an existing key replaces its value. Removal takes the entry out
+ * of its leaf without merging pages, as is common for disk B+trees; space is
+ * reused by later inserts into the same leaf.
+ * 
+ * <dd>Changes reach the file when pages are evicted or when flush() or
+ * close() is called. getCacheHits(), getCacheMisses(), getPageReads() and
+ * getPageWrites() report how well the cache is doing.
+ * </dl>
+ * 
+ * <pre>
+ * page 0, the meta page (integers big-endian):
+ *   0  int magic, 0x4250544C ("BPTL")
+ *   4  int format version, 1
+ *   8  int pageSize
+ *   12 int maxKeyBytes
+ *   16 int root page number
+ *   20 int number of pages in the file
+ *   24 int number of entries
+ * leaf page:
+ *   0  byte 1
+ *   2  short number of entries n
+ *   4  int next leaf page number, 0 for the last leaf
+ *   8  n times: short key length, maxKeyBytes key bytes, long value
+ * internal page:
+ *   0  byte 2
+ *   2  short number of keys n
+ *   4  int first child page number
+ *   8  n times: short key length, maxKeyBytes key bytes, int child page
+ * </pre>
+ *
+ * @author Sami Start
+ */
+public class DiskBPlusTreeLUT implements Closeable {
+
+	public static final int DEFAULT_PAGE_SIZE = 4096;
+	public static final int DEFAULT_CACHE_PAGES = 1024;
+
+	private static final int MAGIC = 0x4250544C;
+	private static final int VERSION = 1;
+	private static final int PAGE_HEADER = 8;
+	private static final byte LEAF = 1;
+	private static final byte INTERNAL = 2;
+
+	/**
+	 * The member class Page is the decoded form of one page. Its arrays have
+	 * one spare slot so that a page can overflow briefly before it is split.
+	 */
+	protected static final class Page {
+		final int id;
+		final boolean leaf;
+		int n;
+		String[] keys;
+		long[] values;
+		int[] children;
+		int next;
+		boolean dirty;
+
+		Page(int id, boolean leaf, int capacity) {
+			this.id = id;
+			this.leaf = leaf;
+			keys = new String[capacity + 1];
+			if (leaf) {
+				values = new long[capacity + 1];
+			} else {
+				children = new int[capacity + 2];
+			}
+		}
+	}
+
+	private final FileChannel channel;
+	private final int pageSize;
+	private final int maxKeyBytes;
+	private final int leafCapacity;
+	private final int internalCapacity;
+	private final int cachePages;
+
+	private int root;
+	private int pageCount;
+	private int size;
+
+	// Access-ordered, so iteration starts at the least recently used page.
+	private final LinkedHashMap<Integer, Page> cache;
+
+	private long cacheHits;
+	private long cacheMisses;
+	private long pageReads;
+	private long pageWrites;
+
+	private DiskBPlusTreeLUT(FileChannel channel, int pageSize,
+			int maxKeyBytes, int cachePages) {
+		this.channel = channel;
+		this.pageSize = pageSize;
+		this.maxKeyBytes = maxKeyBytes;
+		this.cachePages = cachePages;
+		leafCapacity = (pageSize - PAGE_HEADER) / (2 + maxKeyBytes + 8);
+		internalCapacity = (pageSize - PAGE_HEADER) / (2 + maxKeyBytes + 4);
+		cache = new LinkedHashMap<Integer, Page>(cachePages * 2, 0.75f, true);
+	}
+
+	/**
+	 * Creates a new, empty look-up table file, overwriting any existing file.
+	 */
+	public static DiskBPlusTreeLUT create(File file, int pageSize,
+			int maxKeyBytes, int cachePages) throws IOException {
+		if (cachePages < 8 || maxKeyBytes < 1
+				|| maxKeyBytes > Short.MAX_VALUE
+				|| (pageSize - PAGE_HEADER) / (2 + maxKeyBytes + 8) < 3) {
+			throw new IllegalArgumentException(
+					"Pages must hold at least 3 keys and the cache 8 pages");
+		}
+
+		FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		DiskBPlusTreeLUT lut = new DiskBPlusTreeLUT(channel, pageSize,
+				maxKeyBytes, cachePages);
+
+		// Page 0 is the meta page and page 1 the initial, empty root leaf.
+		lut.pageCount = 1;
+		lut.root = lut.allocate(true).id;
+		lut.flush();
+		return lut;
+	}
+
+	/**
+	 * Creates a new look-up table file with the default page and cache sizes.
+	 */
+	public static DiskBPlusTreeLUT create(File file, int maxKeyBytes)
+			throws IOException {
+		return create(file, DEFAULT_PAGE_SIZE, maxKeyBytes, DEFAULT_CACHE_PAGES);
+	}
+
+	/**
+	 * Opens an existing look-up table file.
+	 */
+	public static DiskBPlusTreeLUT open(File file, int cachePages)
+			throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			ByteBuffer meta = ByteBuffer.allocate(28);
+			readFully(channel, meta, 0);
+			if (meta.getInt(0) != MAGIC) {
+				throw new IOException("Not a B+tree file: " + file);
+			}
+			if (meta.getInt(4) != VERSION) {
+				throw new IOException("Unsupported format version "
+						+ meta.getInt(4) + ": " + file);
+			}
+
+			DiskBPlusTreeLUT lut = new DiskBPlusTreeLUT(channel,
+					meta.getInt(8), meta.getInt(12), Math.max(8, cachePages));
+			lut.root = meta.getInt(16);
+			lut.pageCount = meta.getInt(20);
+			lut.size = meta.getInt(24);
+			return lut;
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Inserts a new key-value pair into the look-up table, replacing the
+	 * value if the key is already present.
+	 */
+	public void insert(String key, long value) throws IOException {
+		checkKey(key);
+
+		// Walk down to the leaf, remembering the path and the child taken
+		// at each level for the splits on the way back.
+		Page[] path = new Page[16];
+		int[] taken = new int[16];
+		int depth = 0;
+		Page node = read(root);
+		while (!node.leaf) {
+			if (depth == path.length) {
+				path = java.util.Arrays.copyOf(path, depth * 2);
+				taken = java.util.Arrays.copyOf(taken, depth * 2);
+			}
+			int i = childIndex(node, key);
+			path[depth] = node;
+			taken[depth] = i;
+			depth += 1;
+			node = read(node.children[i]);
+		}
+
+		int pos = search(node, key);
+		if (pos >= 0) {
+			node.values[pos] = value;
+			markDirty(node);
+			return;
+		}
+		pos = -(pos + 1);
+
+		System.arraycopy(node.keys, pos, node.keys, pos + 1, node.n - pos);
+		System.arraycopy(node.values, pos, node.values, pos + 1, node.n - pos);
+		node.keys[pos] = key;
+		node.values[pos] = value;
+		node.n += 1;
+		size += 1;
+		markDirty(node);
+
+		if (node.n <= leafCapacity) {
+			return;
+		}
+
+		// Split the leaf; the first key of the new right half separates the
+		// two in the parent.
+		Page right = allocate(true);
+		int half = node.n / 2;
+		right.n = node.n - half;
+		System.arraycopy(node.keys, half, right.keys, 0, right.n);
+		System.arraycopy(node.values, half, right.values, 0, right.n);
+		java.util.Arrays.fill(node.keys, half, node.n, null);
+		node.n = half;
+		right.next = node.next;
+		node.next = right.id;
+		markDirty(node);
+
+		String separator = right.keys[0];
+		int newChild = right.id;
+
+		// Insert the separator into the parents, splitting any that
+		// overflow, up to the root.
+		while (depth > 0) {
+			depth -= 1;
+			Page parent = path[depth];
+			int i = taken[depth];
+
+			System.arraycopy(parent.keys, i, parent.keys, i + 1, parent.n - i);
+			System.arraycopy(parent.children, i + 1, parent.children, i + 2,
+					parent.n - i);
+			parent.keys[i] = separator;
+			parent.children[i + 1] = newChild;
+			parent.n += 1;
+			markDirty(parent);
+
+			if (parent.n <= internalCapacity) {
+				return;
+			}
+
+			// The middle key moves up rather than being copied.
+			Page sibling = allocate(false);
+			int mid = parent.n / 2;
+			sibling.n = parent.n - mid - 1;
+			System.arraycopy(parent.keys, mid + 1, sibling.keys, 0, sibling.n);
+			System.arraycopy(parent.children, mid + 1, sibling.children, 0,
+					sibling.n + 1);
+			separator = parent.keys[mid];
+			java.util.Arrays.fill(parent.keys, mid, parent.n, null);
+			parent.n = mid;
+			markDirty(parent);
+			newChild = sibling.id;
+		}
+
+		// The root itself split: grow the tree by one level.
+		Page newRoot = allocate(false);
+		newRoot.n = 1;
+		newRoot.keys[0] = separator;
+		newRoot.children[0] = root;
+		newRoot.children[1] = newChild;
+		markDirty(newRoot);
+		root = newRoot.id;
+	}
+
+	/**
+	 * Retrieves the value stored with the specified key.
+	 */
+	public long retrieve(String key) throws KeyNotFoundInTableException,
+			IOException {
+		Page leaf = findLeaf(key);
+		int pos = search(leaf, key);
+		if (pos < 0) {
+			throw new KeyNotFoundInTableException();
+		}
+		return leaf.values[pos];
+	}
+
+	/**
+	 * Updates the key-value pair with the specified key with the new specified
+	 * value.
+	 */
+	public void update(String key, long value)
+			throws KeyNotFoundInTableException, IOException {
+		Page leaf = findLeaf(key);
+		int pos = search(leaf, key);
+		if (pos < 0) {
+			throw new KeyNotFoundInTableException();
+		}
+		leaf.values[pos] = value;
+		markDirty(leaf);
+	}
+
+	/**
+	 * Removes the key-value pair with the specified key from the look-up table.
+	 */
+	public void remove(String key) throws KeyNotFoundInTableException,
+			IOException {
+		Page leaf = findLeaf(key);
+		int pos = search(leaf, key);
+		if (pos < 0) {
+			throw new KeyNotFoundInTableException();
+		}
+		System.arraycopy(leaf.keys, pos + 1, leaf.keys, pos, leaf.n - pos - 1);
+		System.arraycopy(leaf.values, pos + 1, leaf.values, pos, leaf.n - pos
+				- 1);
+		leaf.n -= 1;
+		leaf.keys[leaf.n] = null;
+		size -= 1;
+		markDirty(leaf);
+	}
+
+	/**
+	 * Returns a view of the pairs with fromKey <= key < toKey, in ascending
+	 * key order, read by following the leaf chain. Either bound may be null
+	 * for an open range. I/O errors during iteration are thrown as
+	 * UncheckedIOException.
+	 */
+	public Iterable<Map.Entry<String, Long>> range(final String fromKey,
+			final String toKey) {
+		return new Iterable<Map.Entry<String, Long>>() {
+			public Iterator<Map.Entry<String, Long>> iterator() {
+				try {
+					return new LeafIterator(fromKey, toKey);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Returns the number of key-value pairs in the look-up table.
+	 */
+	public int size() {
+		return size;
+	}
+
+	public long getCacheHits() {
+		return cacheHits;
+	}
+
+	public long getCacheMisses() {
+		return cacheMisses;
+	}
+
+	public double getCacheHitRate() {
+		long lookups = cacheHits + cacheMisses;
+		return lookups == 0 ? 0 : (double) cacheHits / lookups;
+	}
+
+	public long getPageReads() {
+		return pageReads;
+	}
+
+	public long getPageWrites() {
+		return pageWrites;
+	}
+
+	/**
+	 * Writes every changed page and the meta page to the file and forces
+	 * them to disk.
+	 */
+	public void flush() throws IOException {
+		for (Page page : cache.values()) {
+			if (page.dirty) {
+				write(page);
+			}
+		}
+
+		ByteBuffer meta = ByteBuffer.allocate(28);
+		meta.putInt(0, MAGIC);
+		meta.putInt(4, VERSION);
+		meta.putInt(8, pageSize);
+		meta.putInt(12, maxKeyBytes);
+		meta.putInt(16, root);
+		meta.putInt(20, pageCount);
+		meta.putInt(24, size);
+		writeFully(channel, meta, 0);
+		channel.force(true);
+	}
+
+	/**
+	 * Flushes the table and closes the file.
+	 */
+	public void close() throws IOException {
+		if (channel.isOpen()) {
+			flush();
+			channel.close();
+		}
+	}
+
+	// private methods implementing the tree over the page cache.
+
+	private void checkKey(String key) {
+		if (key.getBytes(StandardCharsets.UTF_8).length > maxKeyBytes) {
+			throw new IllegalArgumentException("Key longer than " + maxKeyBytes
+					+ " bytes: " + key);
+		}
+	}
+
+	private Page findLeaf(String key) throws IOException {
+		Page node = read(root);
+		while (!node.leaf) {
+			node = read(node.children[childIndex(node, key)]);
+		}
+		return node;
+	}
+
+	/**
+	 * Index of the child of an internal page whose keys are >= the separator
+	 * before it and < the separator after it.
+	 */
+	private static int childIndex(Page node, String key) {
+		int lo = 0;
+		int hi = node.n;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (node.keys[mid].compareTo(key) <= 0) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Binary search in a leaf. Returns the index of key if it is present,
+	 * otherwise -(insertion point + 1).
+	 */
+	private static int search(Page leaf, String key) {
+		int lo = 0;
+		int hi = leaf.n - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			int cmp = leaf.keys[mid].compareTo(key);
+			if (cmp < 0) {
+				lo = mid + 1;
+			} else if (cmp > 0) {
+				hi = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(lo + 1);
+	}
+
+	private Page allocate(boolean leaf) throws IOException {
+		Page page = new Page(pageCount, leaf, leaf ? leafCapacity
+				: internalCapacity);
+		pageCount += 1;
+		markDirty(page);
+		return page;
+	}
+
+	/**
+	 * Records that a page has changed. The page is (re)inserted into the
+	 * cache in case it was evicted while the caller held on to it.
+	 */
+	private void markDirty(Page page) throws IOException {
+		page.dirty = true;
+		cache.put(page.id, page);
+		evict();
+	}
+
+	/**
+	 * Returns a page from the cache, reading it from the file on a miss.
+	 */
+	private Page read(int id) throws IOException {
+		Page page = cache.get(id);
+		if (page != null) {
+			cacheHits += 1;
+			return page;
+		}
+		cacheMisses += 1;
+
+		ByteBuffer buffer = ByteBuffer.allocate(pageSize);
+		readFully(channel, buffer, (long) id * pageSize);
+		pageReads += 1;
+
+		boolean leaf = buffer.get(0) == LEAF;
+		page = new Page(id, leaf, leaf ? leafCapacity : internalCapacity);
+		page.n = buffer.getShort(2);
+		byte[] bytes = new byte[maxKeyBytes];
+		buffer.position(4);
+		if (leaf) {
+			page.next = buffer.getInt();
+		} else {
+			page.children[0] = buffer.getInt();
+		}
+		for (int i = 0; i < page.n; i++) {
+			int length = buffer.getShort();
+			buffer.get(bytes);
+			page.keys[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+			if (leaf) {
+				page.values[i] = buffer.getLong();
+			} else {
+				page.children[i + 1] = buffer.getInt();
+			}
+		}
+
+		cache.put(id, page);
+		evict();
+		return page;
+	}
+
+	private void write(Page page) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(pageSize);
+		buffer.put(page.leaf ? LEAF : INTERNAL);
+		buffer.put((byte) 0);
+		buffer.putShort((short) page.n);
+		buffer.putInt(page.leaf ? page.next : page.children[0]);
+		for (int i = 0; i < page.n; i++) {
+			byte[] key = page.keys[i].getBytes(StandardCharsets.UTF_8);
+			buffer.putShort((short) key.length);
+			buffer.put(key);
+			buffer.position(buffer.position() + maxKeyBytes - key.length);
+			if (page.leaf) {
+				buffer.putLong(page.values[i]);
+			} else {
+				buffer.putInt(page.children[i + 1]);
+			}
+		}
+		buffer.clear();
+		writeFully(channel, buffer, (long) page.id * pageSize);
+		pageWrites += 1;
+		page.dirty = false;
+	}
+
+	/**
+	 * Evicts least recently used pages while the cache is over its bound,
+	 * writing back those that have changed.
+	 */
+	private void evict() throws IOException {
+		Iterator<Page> pages = cache.values().iterator();
+		while (cache.size() > cachePages) {
+			Page page = pages.next();
+			if (page.dirty) {
+				write(page);
+			}
+			pages.remove();
+		}
+	}
+
+	private static void readFully(FileChannel channel, ByteBuffer buffer,
+			long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position + buffer.position());
+			if (read < 0) {
+				throw new IOException("Unexpected end of file");
+			}
+		}
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer,
+			long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer, position + buffer.position());
+		}
+	}
+
+	/**
+	 * Iterator over a key range that walks the linked leaves.
+	 */
+	private class LeafIterator implements Iterator<Map.Entry<String, Long>> {
+
+		private final String toKey;
+		private Page leaf;
+		private int index;
+
+		LeafIterator(String fromKey, String toKey) throws IOException {
+			this.toKey = toKey;
+			if (fromKey == null) {
+				leaf = read(root);
+				while (!leaf.leaf) {
+					leaf = read(leaf.children[0]);
+				}
+				index = 0;
+			} else {
+				leaf = findLeaf(fromKey);
+				int pos = search(leaf, fromKey);
+				index = pos >= 0 ? pos : -(pos + 1);
+			}
+			skipExhaustedLeaves();
+		}
+
+		/**
+		 * Moves on along the chain past leaves with no entries left.
+		 */
+		private void skipExhaustedLeaves() throws IOException {
+			while (leaf != null && index >= leaf.n) {
+				leaf = leaf.next == 0 ? null : read(leaf.next);
+				index = 0;
+			}
+			if (leaf != null && toKey != null
+					&& leaf.keys[index].compareTo(toKey) >= 0) {
+				leaf = null;
+			}
+		}
+
+		public boolean hasNext() {
+			return leaf != null;
+		}
+
+		public Map.Entry<String, Long> next() {
+			if (leaf == null) {
+				throw new NoSuchElementException();
+			}
+			Map.Entry<String, Long> entry = new AbstractMap.SimpleImmutableEntry<String, Long>(
+					leaf.keys[index], leaf.values[index]);
+			index += 1;
+			try {
+				skipExhaustedLeaves();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return entry;
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
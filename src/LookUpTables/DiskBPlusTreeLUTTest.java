@@ -0,0 +1,51 @@
+package LookUpTables;
+
+import java.io.File;
+import java.util.Map;
+
+public class DiskBPlusTreeLUTTest {
+	public static void main(String[] args) {
+		try {
+			File file = File.createTempFile("lut", ".bpt");
+			file.deleteOnExit();
+
+			DiskBPlusTreeLUT myLUT = DiskBPlusTreeLUT.create(file, 32);
+			myLUT.insert("Priscilla", 41);
+			myLUT.insert("Travis", 34);
+			myLUT.insert("Samuel", 28);
+			myLUT.insert("Helena", 39);
+			myLUT.insert("Andrew", 14);
+			myLUT.insert("Kay", 24);
+			myLUT.insert("John", 67);
+			myLUT.update("Kay", 25);
+			myLUT.remove("Helena");
+			for (Map.Entry<String, Long> e : myLUT.range(null, null)) {
+				System.out.print(e.getKey() + ":" + e.getValue() + ", ");
+			}
+			System.out.println();
+
+			// A table larger than the page cache.
+			for (int i = 0; i < 200000; i++) {
+				myLUT.insert(String.format("Key%07d", i), i);
+			}
+			myLUT.close();
+
+			myLUT = DiskBPlusTreeLUT.open(file, 64);
+			System.out.println("Size after reopening: " + myLUT.size());
+			System.out.println("Key0123456 -> " + myLUT.retrieve("Key0123456"));
+			long sum = 0;
+			for (Map.Entry<String, Long> e : myLUT.range("Key0100000",
+					"Key0100100")) {
+				sum += e.getValue();
+			}
+			System.out.println("Sum over range: " + sum);
+			System.out.printf("Cache hit rate %.2f, %d page reads, %d page writes%n",
+					myLUT.getCacheHitRate(), myLUT.getPageReads(),
+					myLUT.getPageWrites());
+
+			myLUT.retrieve("Helena");
+		} catch (Exception e) {
+			System.out.println(e);
+		}
+	}
+}
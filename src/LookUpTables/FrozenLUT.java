@@ -0,0 +1,113 @@
+package LookUpTables;
+
+/**
+ * <dl>
+ * <dt>Purpose: Read-only implementation of LUT using an Eytzinger array.
+ * <dd>
+ *
+ * <dt>Description:
+ * <dd>This class is an immutable look-up table built by
+ * BinaryTreeLUT.freeze(). The keys and values are packed into two arrays in
+ * Eytzinger (breadth-first) order: the implicit tree has its root at index 1
+ * and the children of index k at 2k and 2k + 1. A search then reads the
+ * arrays front to back, the top levels share a few cache lines, and the only
+ * data dependent step is the choice of child, which compiles to a
+ * conditional move rather than a branch.
+ * 
+ * <dd>There are no node, entry or key objects, so the table uses a fraction
+ * of the memory of the tree it was frozen from. If that tree held several
+ * pairs with the same key, retrieve() returns one of them.
+ * </dl>
+ *
+ * @author Sami Start
+ */
+public final class FrozenLUT {
+
+	// Eytzinger order, from index 1; index 0 is unused.
+	private final String[] keys;
+	private final Object[] values;
+	private final int n;
+
+	/**
+	 * Builds the table from n keys in ascending order and their values.
+	 */
+	FrozenLUT(String[] sortedKeys, Object[] sortedValues, int n) {
+		this.n = n;
+		keys = new String[n + 1];
+		values = new Object[n + 1];
+		fill(sortedKeys, sortedValues, 0, 1);
+	}
+
+	/**
+	 * Retrieves the value stored with the specified key.
+	 */
+	public Object retrieve(String key) throws KeyNotFoundInTableException {
+		int k = lowerBound(key);
+		if (k == 0 || !keys[k].equals(key)) {
+			throw new KeyNotFoundInTableException();
+		}
+		return values[k];
+	}
+
+	/**
+	 * Returns the least key greater than or equal to key, or null if there
+	 * is none.
+	 */
+	public String ceiling(String key) {
+		return keys[lowerBound(key)];
+	}
+
+	/**
+	 * Returns the number of key-value pairs in the look-up table.
+	 */
+	public int size() {
+		return n;
+	}
+
+	/**
+	 * Returns a string listing all the key-entry pairs in the LUT
+	 */
+	public String toString() {
+		StringBuilder str = new StringBuilder();
+		appendInOrder(str, 1);
+		return str.toString();
+	}
+
+	/**
+	 * Returns the index of the least key >= key, or 0 if there is none.
+	 */
+	private int lowerBound(String key) {
+		int k = 1;
+		while (k <= n) {
+			k = 2 * k + (keys[k].compareTo(key) < 0 ? 1 : 0);
+		}
+
+		// The answer is the last node where the search turned left (a 0
+		// bit); every turn after it was to the right (the trailing 1 bits).
+		// Dropping those bits and the 0 leads back to it, or to 0.
+		return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+	}
+
+	/**
+	 * Copies the sorted pairs from index i on into the subtree at k by an
+	 * in-order walk of the implicit tree; returns the next unused index.
+	 * The recursion is only O(log n) deep.
+	 */
+	private int fill(String[] sortedKeys, Object[] sortedValues, int i, int k) {
+		if (k <= n) {
+			i = fill(sortedKeys, sortedValues, i, 2 * k);
+			keys[k] = sortedKeys[i];
+			values[k] = sortedValues[i];
+			i = fill(sortedKeys, sortedValues, i + 1, 2 * k + 1);
+		}
+		return i;
+	}
+
+	private void appendInOrder(StringBuilder str, int k) {
+		if (k <= n) {
+			appendInOrder(str, 2 * k);
+			str.append(keys[k]).append(":").append(values[k]).append(", ");
+			appendInOrder(str, 2 * k + 1);
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package LookUpTables;
+
+import java.util.Random;
+
+/**
+ * Compares lookups in a balanced BinaryTreeLUT with lookups in the FrozenLUT
+ * made from it, and the heap each of them occupies. Every structure is
+ * measured twice and the second round is reported, once the JIT has
+ * settled.
+ */
+public class FrozenLUTBenchmark {
+
+	private static final int KEYS = 1 << 20;
+	private static final int LOOKUPS = 2000000;
+
+	public static void main(String[] args) throws Exception {
+		// The keys and values are made up front, so that only the structures
+		// themselves are counted in the heap figures.
+		String[] keys = new String[KEYS];
+		Integer[] values = new Integer[KEYS];
+		for (int i = 0; i < KEYS; i++) {
+			keys[i] = String.format("Key%08d", i);
+			values[i] = new Integer(i);
+		}
+
+		// Probe in random order, so the caches do not hide the layout.
+		Random random = new Random(42);
+		int[] order = new int[LOOKUPS];
+		for (int i = 0; i < LOOKUPS; i++) {
+			order[i] = random.nextInt(KEYS);
+		}
+
+		long before = usedMemory();
+		BinaryTreeLUT tree = new BinaryTreeLUT(true);
+		for (int i = 0; i < KEYS; i++) {
+			tree.insert(keys[i], values[i]);
+		}
+		long treeBytes = usedMemory() - before;
+
+		before = usedMemory();
+		FrozenLUT frozen = tree.freeze();
+		long frozenBytes = usedMemory() - before;
+
+		double treeNanos = 0;
+		double frozenNanos = 0;
+		for (int round = 0; round < 2; round++) {
+			long start = System.nanoTime();
+			long checksum = 0;
+			for (int i = 0; i < LOOKUPS; i++) {
+				checksum += (Integer) tree.retrieve(keys[order[i]]);
+			}
+			treeNanos = (double) (System.nanoTime() - start) / LOOKUPS;
+
+			start = System.nanoTime();
+			for (int i = 0; i < LOOKUPS; i++) {
+				checksum -= (Integer) frozen.retrieve(keys[order[i]]);
+			}
+			frozenNanos = (double) (System.nanoTime() - start) / LOOKUPS;
+
+			if (checksum != 0) {
+				throw new IllegalStateException("Lookups disagree");
+			}
+		}
+
+		System.out.println(KEYS + " keys, " + LOOKUPS + " random lookups");
+		System.out.println("             ns/lookup   heap (MB)");
+		System.out.printf("BinaryTreeLUT %9.1f %11.1f%n", treeNanos,
+				treeBytes / 1e6);
+		System.out.printf("FrozenLUT     %9.1f %11.1f%n", frozenNanos,
+				frozenBytes / 1e6);
+	}
+
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
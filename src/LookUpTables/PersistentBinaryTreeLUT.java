@@ -0,0 +1,236 @@
+package LookUpTables;
+
+import java.util.ArrayDeque;
+
+/**
+ * <dl>
+ * <dt>Purpose: Implementation of LUT using a persistent binary search tree.
+ * <dd>
+ *
+ * <dt>Description:
+ * <dd>This class is an implementation of the look-up table abstract data type
+ * whose tree nodes are never modified once built. insert, update and remove
+ * copy only the nodes on the path from the root to the key and share every
+ * other subtree with the previous version, then publish the new root. The
+ * tree is kept AVL balanced, so each change copies O(log n) nodes.
+ * 
+ * <dd>Because old versions stay intact, snapshot() is O(1): it returns a
+ * look-up table over the current root, which later changes to either table
+ * do not affect. Readers need no locking, as they only ever see complete
+ * versions; writers to the same table are serialised. Keys are unique:
+ * inserting an existing key replaces its value. The elements are stored in
+ * ascending alphabetical order.
+ * </dl>
+ *
+ * @author Sami Start
+ */
+public class PersistentBinaryTreeLUT {
+
+	/**
+	 * The member class Node is an immutable tree node holding a key-value
+	 * pair, its subtrees and the height of the subtree rooted here.
+	 */
+	protected static final class Node {
+
+		Node(String k, Object v, Node l, Node r) {
+			key = k;
+			value = v;
+			left = l;
+			right = r;
+			height = 1 + Math.max(height(l), height(r));
+		}
+
+		protected final String key;
+		protected final Object value;
+		protected final Node left;
+		protected final Node right;
+		protected final int height;
+	}
+
+	// The current version; replaced as a whole by every change.
+	protected volatile Node root;
+
+	/**
+	 * Default constructor - no need to specify capacity of LUT.
+	 */
+	public PersistentBinaryTreeLUT() {
+		root = null;
+	}
+
+	private PersistentBinaryTreeLUT(Node root) {
+		this.root = root;
+	}
+
+	/**
+	 * Returns an independent look-up table holding the current contents, in
+	 * O(1) time and space.
+	 */
+	public PersistentBinaryTreeLUT snapshot() {
+		return new PersistentBinaryTreeLUT(root);
+	}
+
+	/**
+	 * Inserts a new key-value pair into the look-up table, replacing the
+	 * value if the key is already present.
+	 */
+	public synchronized void insert(String key, Object value) {
+		root = insert(root, key, value);
+	}
+
+	/**
+	 * Removes the key-value pair with the specified key from the look-up table.
+	 */
+	public synchronized void remove(String key)
+			throws KeyNotFoundInTableException {
+		root = remove(root, key);
+	}
+
+	/**
+	 * Updates the key-value pair with the specified key with the new specified
+	 * value.
+	 */
+	public synchronized void update(String key, Object value)
+			throws KeyNotFoundInTableException {
+		root = update(root, key, value);
+	}
+
+	/**
+	 * Retrieves the value stored with the specified key.
+	 */
+	public Object retrieve(String key) throws KeyNotFoundInTableException {
+		Node node = root;
+		while (node != null) {
+			int cmp = key.compareTo(node.key);
+			if (cmp == 0) {
+				return node.value;
+			}
+			node = cmp < 0 ? node.left : node.right;
+		}
+		throw new KeyNotFoundInTableException();
+	}
+
+	/**
+	 * Returns a string listing all the key-entry pairs in the LUT
+	 */
+	public String toString() {
+		StringBuilder str = new StringBuilder();
+		ArrayDeque<Node> stack = new ArrayDeque<Node>();
+
+		// Read the root once, so the whole listing is of one version.
+		Node node = root;
+		while (node != null || !stack.isEmpty()) {
+			while (node != null) {
+				stack.push(node);
+				node = node.left;
+			}
+			node = stack.pop();
+			str.append(node.key).append(":").append(node.value).append(", ");
+			node = node.right;
+		}
+		return str.toString();
+	}
+
+	// private methods building new versions of the tree. Each returns the
+	// root of the new version of the subtree it was given; the recursion is
+	// only O(log n) deep.
+
+	private static Node insert(Node node, String key, Object value) {
+		if (node == null) {
+			return new Node(key, value, null, null);
+		}
+
+		int cmp = key.compareTo(node.key);
+		if (cmp < 0) {
+			return balance(node.key, node.value,
+					insert(node.left, key, value), node.right);
+		} else if (cmp > 0) {
+			return balance(node.key, node.value, node.left,
+					insert(node.right, key, value));
+		}
+		return new Node(key, value, node.left, node.right);
+	}
+
+	private static Node update(Node node, String key, Object value)
+			throws KeyNotFoundInTableException {
+		if (node == null) {
+			throw new KeyNotFoundInTableException();
+		}
+
+		int cmp = key.compareTo(node.key);
+		if (cmp < 0) {
+			return new Node(node.key, node.value,
+					update(node.left, key, value), node.right);
+		} else if (cmp > 0) {
+			return new Node(node.key, node.value, node.left,
+					update(node.right, key, value));
+		}
+		return new Node(key, value, node.left, node.right);
+	}
+
+	private static Node remove(Node node, String key)
+			throws KeyNotFoundInTableException {
+		if (node == null) {
+			throw new KeyNotFoundInTableException();
+		}
+
+		int cmp = key.compareTo(node.key);
+		if (cmp < 0) {
+			return balance(node.key, node.value, remove(node.left, key),
+					node.right);
+		} else if (cmp > 0) {
+			return balance(node.key, node.value, node.left,
+					remove(node.right, key));
+		}
+
+		// Found: splice in the smallest node of the right subtree.
+		if (node.left == null) {
+			return node.right;
+		} else if (node.right == null) {
+			return node.left;
+		}
+		Node min = node.right;
+		while (min.left != null) {
+			min = min.left;
+		}
+		return balance(min.key, min.value, node.left, removeMin(node.right));
+	}
+
+	private static Node removeMin(Node node) {
+		if (node.left == null) {
+			return node.right;
+		}
+		return balance(node.key, node.value, removeMin(node.left), node.right);
+	}
+
+	/**
+	 * Builds a node over subtrees whose heights differ by at most two,
+	 * rotating as needed to restore the AVL property.
+	 */
+	private static Node balance(String key, Object value, Node left,
+			Node right) {
+		if (height(left) > height(right) + 1) {
+			if (height(left.left) >= height(left.right)) {
+				return new Node(left.key, left.value, left.left, new Node(key,
+						value, left.right, right));
+			}
+			Node pivot = left.right;
+			return new Node(pivot.key, pivot.value, new Node(left.key,
+					left.value, left.left, pivot.left), new Node(key, value,
+					pivot.right, right));
+		} else if (height(right) > height(left) + 1) {
+			if (height(right.right) >= height(right.left)) {
+				return new Node(right.key, right.value, new Node(key, value,
+						left, right.left), right.right);
+			}
+			Node pivot = right.left;
+			return new Node(pivot.key, pivot.value, new Node(key, value, left,
+					pivot.left), new Node(right.key, right.value, pivot.right,
+					right.right));
+		}
+		return new Node(key, value, left, right);
+	}
+
+	private static int height(Node node) {
+		return node == null ? 0 : node.height;
+	}
+}
@@ -0,0 +1,31 @@
+package LookUpTables;
+
+public class PersistentBinaryTreeLUTTest {
+	public static void main(String[] args) {
+		PersistentBinaryTreeLUT myLUT = new PersistentBinaryTreeLUT();
+
+		myLUT.insert("Priscilla", new Integer(41));
+		myLUT.insert("Travis", new Integer(34));
+		myLUT.insert("Samuel", new Integer(28));
+		myLUT.insert("Helena", new Integer(39));
+
+		// The report works from a snapshot while the table keeps changing.
+		PersistentBinaryTreeLUT report = myLUT.snapshot();
+		try {
+			myLUT.update("Samuel", new Integer(29));
+			myLUT.remove("Travis");
+			myLUT.insert("Olga", new Integer(44));
+		} catch (KeyNotFoundInTableException e) {
+			System.out.println(e);
+		}
+		System.out.println("Live:     " + myLUT);
+		System.out.println("Snapshot: " + report);
+
+		try {
+			System.out.println("Snapshot Travis -> " + report.retrieve("Travis"));
+			myLUT.retrieve("Travis");
+		} catch (KeyNotFoundInTableException e) {
+			System.out.println(e);
+		}
+	}
+}
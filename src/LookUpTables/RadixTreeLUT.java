@@ -0,0 +1,351 @@
+package LookUpTables;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <dl>
+ * <dt>Purpose: Implementation of LUT using a radix tree.
+ * <dd>
+ *
+ * <dt>Description:
+ * <dd>This class is an implementation of the look-up table abstract data type
+ * that uses a compressed trie (radix tree) as the underlying data structure.
+ * Every edge is labelled with a run of characters and no node other than the
+ * root has a single child unless it holds a key, so a prefix shared by many
+ * keys is stored once. Operations compare the key a character at a time
+ * along one path and take O(key length) time, whatever the number of keys.
+ * 
+ * <dd>prefixScan() lists every pair whose key starts with a given prefix and
+ * longestPrefixMatch() finds the longest stored key that is a prefix of a
+ * given string. Keys are unique: inserting an existing key replaces its
+ * value. The elements are enumerated in ascending alphabetical order.
+ * </dl>
+ *
+ * @author Sami Start
+ */
+public class RadixTreeLUT {
+
+	/**
+	 * The member class Node is a tree node. label is the run of characters on
+	 * the edge from its parent; the children are kept sorted by the first
+	 * character of their labels, which are all distinct.
+	 */
+	protected static class Node {
+
+		public Node(String label) {
+			this.label = label;
+			children = NO_CHILDREN;
+		}
+
+		protected String label;
+		protected boolean hasValue;
+		protected Object value;
+		protected Node[] children;
+	}
+
+	private static final Node[] NO_CHILDREN = new Node[0];
+
+	protected Node root;
+	private int size;
+
+	/**
+	 * Default constructor - no need to specify capacity of LUT.
+	 */
+	public RadixTreeLUT() {
+		root = new Node("");
+	}
+
+	/**
+	 * Inserts a new key-value pair into the look-up table, replacing the
+	 * value if the key is already present.
+	 */
+	public void insert(String key, Object value) {
+		Node node = root;
+		int i = 0;
+
+		while (i < key.length()) {
+			int c = childIndex(node, key.charAt(i));
+			if (c < 0) {
+				Node leaf = new Node(key.substring(i));
+				setValue(leaf, value);
+				addChild(node, -(c + 1), leaf);
+				return;
+			}
+
+			Node child = node.children[c];
+			int common = commonPrefix(child.label, key, i);
+			if (common < child.label.length()) {
+				// The key leaves the edge part way along: split it.
+				Node mid = new Node(child.label.substring(0, common));
+				child.label = child.label.substring(common);
+				mid.children = new Node[] { child };
+				node.children[c] = mid;
+				child = mid;
+			}
+			node = child;
+			i += common;
+		}
+		setValue(node, value);
+	}
+
+	/**
+	 * Removes the key-value pair with the specified key from the look-up table.
+	 */
+	public void remove(String key) throws KeyNotFoundInTableException {
+		Node grandparent = null;
+		Node parent = null;
+		Node node = root;
+		int i = 0;
+
+		while (i < key.length()) {
+			Node child = child(node, key, i);
+			if (child == null) {
+				throw new KeyNotFoundInTableException();
+			}
+			grandparent = parent;
+			parent = node;
+			node = child;
+			i += child.label.length();
+		}
+		if (!node.hasValue) {
+			throw new KeyNotFoundInTableException();
+		}
+		node.hasValue = false;
+		node.value = null;
+		size -= 1;
+
+		// Restore compression: drop an empty leaf, then merge whichever
+		// node is left holding no key and a single child.
+		if (parent == null) {
+			return;
+		}
+		if (node.children.length == 0) {
+			removeChild(parent, node);
+			if (parent != root && !parent.hasValue
+					&& parent.children.length == 1) {
+				mergeWithChild(grandparent, parent);
+			}
+		} else if (node.children.length == 1) {
+			mergeWithChild(parent, node);
+		}
+	}
+
+	/**
+	 * Retrieves the value stored with the specified key.
+	 */
+	public Object retrieve(String key) throws KeyNotFoundInTableException {
+		return find(key).value;
+	}
+
+	/**
+	 * Updates the key-value pair with the specified key with the new specified
+	 * value.
+	 */
+	public void update(String key, Object value)
+			throws KeyNotFoundInTableException {
+		find(key).value = value;
+	}
+
+	/**
+	 * Returns the pairs whose key starts with prefix, in ascending key order.
+	 */
+	public List<Map.Entry<String, Object>> prefixScan(String prefix) {
+		List<Map.Entry<String, Object>> result = new ArrayList<Map.Entry<String, Object>>();
+		Node node = root;
+		int i = 0;
+
+		while (i < prefix.length()) {
+			int c = childIndex(node, prefix.charAt(i));
+			if (c < 0) {
+				return result;
+			}
+			node = node.children[c];
+			int common = commonPrefix(node.label, prefix, i);
+			if (i + common < prefix.length() && common < node.label.length()) {
+				return result;
+			}
+			i += node.label.length();
+		}
+
+		// The last edge may run past the end of the prefix.
+		StringBuilder path = new StringBuilder();
+		path.append(prefix, 0, i - node.label.length());
+		collect(node, path, result);
+		return result;
+	}
+
+	/**
+	 * Returns the longest key in the look-up table that is a prefix of s,
+	 * or null if there is none.
+	 */
+	public String longestPrefixMatch(String s) {
+		Node node = root;
+		int i = 0;
+		int best = root.hasValue ? 0 : -1;
+
+		while (i < s.length()) {
+			Node child = child(node, s, i);
+			if (child == null) {
+				break;
+			}
+			node = child;
+			i += child.label.length();
+			if (node.hasValue) {
+				best = i;
+			}
+		}
+		return best < 0 ? null : s.substring(0, best);
+	}
+
+	/**
+	 * Returns the number of key-value pairs in the look-up table.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns a string listing all the key-entry pairs in the LUT
+	 */
+	public String toString() {
+		List<Map.Entry<String, Object>> pairs = new ArrayList<Map.Entry<String, Object>>(
+				size);
+		collect(root, new StringBuilder(), pairs);
+
+		StringBuilder str = new StringBuilder();
+		for (Map.Entry<String, Object> pair : pairs) {
+			str.append(pair.getKey()).append(":").append(pair.getValue())
+					.append(", ");
+		}
+		return str.toString();
+	}
+
+	// protected methods implementing operations on the nodes.
+
+	/**
+	 * Returns the node holding key, which must hold a value.
+	 */
+	protected Node find(String key) throws KeyNotFoundInTableException {
+		Node node = root;
+		int i = 0;
+
+		while (i < key.length()) {
+			node = child(node, key, i);
+			if (node == null) {
+				throw new KeyNotFoundInTableException();
+			}
+			i += node.label.length();
+		}
+		if (!node.hasValue) {
+			throw new KeyNotFoundInTableException();
+		}
+		return node;
+	}
+
+	/**
+	 * Returns the child of node whose whole label matches key at offset i,
+	 * or null if there is none.
+	 */
+	protected Node child(Node node, String key, int i) {
+		int c = childIndex(node, key.charAt(i));
+		if (c < 0) {
+			return null;
+		}
+		Node child = node.children[c];
+		return key.startsWith(child.label, i) ? child : null;
+	}
+
+	/**
+	 * Binary search for the child whose label starts with ch. Returns its
+	 * index if it is present, otherwise -(insertion point + 1).
+	 */
+	protected int childIndex(Node node, char ch) {
+		Node[] children = node.children;
+		int lo = 0;
+		int hi = children.length - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			char first = children[mid].label.charAt(0);
+			if (first < ch) {
+				lo = mid + 1;
+			} else if (first > ch) {
+				hi = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(lo + 1);
+	}
+
+	/**
+	 * Appends the pairs in the subtree of node to result in ascending order;
+	 * path holds the characters leading to node, excluding its own label.
+	 */
+	protected void collect(Node node, StringBuilder path,
+			List<Map.Entry<String, Object>> result) {
+		int length = path.length();
+		path.append(node.label);
+		if (node.hasValue) {
+			result.add(new AbstractMap.SimpleImmutableEntry<String, Object>(
+					path.toString(), node.value));
+		}
+		for (Node child : node.children) {
+			collect(child, path, result);
+		}
+		path.setLength(length);
+	}
+
+	// private helpers restructuring the tree.
+
+	private void setValue(Node node, Object value) {
+		if (!node.hasValue) {
+			node.hasValue = true;
+			size += 1;
+		}
+		node.value = value;
+	}
+
+	private static int commonPrefix(String label, String key, int i) {
+		int n = Math.min(label.length(), key.length() - i);
+		int j = 0;
+		while (j < n && label.charAt(j) == key.charAt(i + j)) {
+			j += 1;
+		}
+		return j;
+	}
+
+	private static void addChild(Node node, int index, Node child) {
+		Node[] children = new Node[node.children.length + 1];
+		System.arraycopy(node.children, 0, children, 0, index);
+		children[index] = child;
+		System.arraycopy(node.children, index, children, index + 1,
+				node.children.length - index);
+		node.children = children;
+	}
+
+	private void removeChild(Node node, Node child) {
+		int index = childIndex(node, child.label.charAt(0));
+		int n = node.children.length - 1;
+		if (n == 0) {
+			node.children = NO_CHILDREN;
+			return;
+		}
+		Node[] children = new Node[n];
+		System.arraycopy(node.children, 0, children, 0, index);
+		System.arraycopy(node.children, index + 1, children, index, n - index);
+		node.children = children;
+	}
+
+	/**
+	 * Replaces node, which holds no key and has a single child, by that
+	 * child with the two labels joined.
+	 */
+	private void mergeWithChild(Node parent, Node node) {
+		Node child = node.children[0];
+		child.label = node.label + child.label;
+		parent.children[childIndex(parent, node.label.charAt(0))] = child;
+	}
+}
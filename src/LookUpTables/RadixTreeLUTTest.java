@@ -0,0 +1,29 @@
+package LookUpTables;
+
+public class RadixTreeLUTTest {
+	public static void main(String[] args) {
+		RadixTreeLUT myLUT = new RadixTreeLUT();
+
+		myLUT.insert("acme/eu-west/orders", new Integer(41));
+		myLUT.insert("acme/eu-west/users", new Integer(34));
+		myLUT.insert("acme/us-east/orders", new Integer(28));
+		myLUT.insert("globex/eu-west/orders", new Integer(39));
+		myLUT.insert("acme", new Integer(7));
+		System.out.println(myLUT);
+
+		System.out.println("Prefix acme/eu: " + myLUT.prefixScan("acme/eu"));
+		System.out.println("Longest match for acme/eu-west/orders/2015: "
+				+ myLUT.longestPrefixMatch("acme/eu-west/orders/2015"));
+		System.out.println("Longest match for acme/apac: "
+				+ myLUT.longestPrefixMatch("acme/apac"));
+
+		try {
+			myLUT.update("acme/us-east/orders", new Integer(29));
+			myLUT.remove("acme/eu-west/users");
+			System.out.println(myLUT + "(" + myLUT.size() + " keys)");
+			myLUT.retrieve("acme/eu-west/users");
+		} catch (KeyNotFoundInTableException e) {
+			System.out.println(e);
+		}
+	}
+}
@@ -0,0 +1,205 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import linearDataStructures.ArrayQueue;
+import linearDataStructures.MPMCRingQueue;
+import linearDataStructures.SPSCRingQueue;
+import linearDataStructures.WaitStrategy;
+
+/**
+ * Measures handoffs per second between threads through SPSCRingQueue and
+ * MPMCRingQueue, one item at a time under each WaitStrategy and in batches,
+ * against an ArrayQueue behind a global lock. The figures depend heavily on
+ * the number of cores: with fewer cores than threads, spinning only delays
+ * the thread being waited for.
+ */
+public class RingQueueBenchmark {
+
+	private static final int HANDOFFS = 4000000;
+	private static final int CAPACITY = 1024;
+	private static final int BATCH = 64;
+
+	/**
+	 * One side of a handoff: moves count items through the queue.
+	 */
+	private interface Side {
+		void run(int count) throws InterruptedException;
+	}
+
+	public static void main(String[] args) throws Exception {
+		final Integer item = new Integer(42);
+
+		System.out.println("queue                          Mhandoffs/s");
+		for (int round = 0; round < 2; round++) {
+			boolean report = round == 1;
+
+			// The baseline: every call takes the queue's monitor.
+			final ArrayQueue locked = new ArrayQueue();
+			result(report, "locked ArrayQueue   1P1C", 1, new Side() {
+				public void run(int count) {
+					for (int i = 0; i < count;) {
+						synchronized (locked) {
+							if (locked.size() < CAPACITY) {
+								locked.enQueue(item);
+								i += 1;
+								continue;
+							}
+						}
+						Thread.yield();
+					}
+				}
+			}, 1, new Side() {
+				public void run(int count) throws InterruptedException {
+					for (int i = 0; i < count;) {
+						synchronized (locked) {
+							if (!locked.empty()) {
+								try {
+									locked.deQueue();
+								} catch (ArrayQueue.ArrayQueueException e) {
+									throw new IllegalStateException(e);
+								}
+								i += 1;
+								continue;
+							}
+						}
+						Thread.yield();
+					}
+				}
+			});
+
+			for (WaitStrategy strategy : WaitStrategy.values()) {
+				final SPSCRingQueue spsc = new SPSCRingQueue(CAPACITY, strategy);
+				result(report, label("SPSC", strategy, "1P1C"), 1,
+						new Side() {
+							public void run(int count) throws InterruptedException {
+								for (int i = 0; i < count; i++) {
+									spsc.put(item);
+								}
+							}
+						}, 1, new Side() {
+							public void run(int count) throws InterruptedException {
+								for (int i = 0; i < count; i++) {
+									spsc.take();
+								}
+							}
+						});
+
+				final MPMCRingQueue mpmc = new MPMCRingQueue(CAPACITY, strategy);
+				result(report, label("MPMC", strategy, "2P2C"), 2,
+						new Side() {
+							public void run(int count) throws InterruptedException {
+								for (int i = 0; i < count; i++) {
+									mpmc.put(item);
+								}
+							}
+						}, 2, new Side() {
+							public void run(int count) throws InterruptedException {
+								for (int i = 0; i < count; i++) {
+									mpmc.take();
+								}
+							}
+						});
+			}
+
+			// offerAll() and drainTo() never wait, so the batched runs back
+			// off by yielding whatever the queue's strategy, and run once.
+			final SPSCRingQueue spscBatched = new SPSCRingQueue(CAPACITY);
+			result(report, "SPSC batched        1P1C", 1,
+					batchProducer(spscBatched, null, item), 1,
+					batchConsumer(spscBatched, null));
+
+			final MPMCRingQueue mpmcBatched = new MPMCRingQueue(CAPACITY);
+			result(report, "MPMC batched        2P2C", 2,
+					batchProducer(null, mpmcBatched, item), 2,
+					batchConsumer(null, mpmcBatched));
+		}
+	}
+
+	private static Side batchProducer(final SPSCRingQueue spsc,
+			final MPMCRingQueue mpmc, final Integer item) {
+		return new Side() {
+			public void run(int count) {
+				Object[] batch = new Object[BATCH];
+				for (int i = 0; i < BATCH; i++) {
+					batch[i] = item;
+				}
+				for (int sent = 0; sent < count;) {
+					if (count - sent < BATCH) {
+						batch = Arrays.copyOf(batch, count - sent);
+					}
+					int n = spsc != null ? spsc.offerAll(batch) : mpmc
+							.offerAll(batch);
+					if (n == 0) {
+						Thread.yield();
+					}
+					sent += n;
+				}
+			}
+		};
+	}
+
+	private static Side batchConsumer(final SPSCRingQueue spsc,
+			final MPMCRingQueue mpmc) {
+		return new Side() {
+			public void run(int count) {
+				List<Object> batch = new ArrayList<Object>(BATCH);
+				for (int received = 0; received < count;) {
+					batch.clear();
+					int n = spsc != null ? spsc.drainTo(batch,
+							Math.min(BATCH, count - received)) : mpmc.drainTo(
+							batch, Math.min(BATCH, count - received));
+					if (n == 0) {
+						Thread.yield();
+					}
+					received += n;
+				}
+			}
+		};
+	}
+
+	private static String label(String queue, WaitStrategy strategy,
+			String threads) {
+		return String.format("%s %-14s %s", queue, strategy, threads);
+	}
+
+	private static void result(boolean report, String name, int producers,
+			Side producer, int consumers, Side consumer)
+			throws InterruptedException {
+		double rate = run(producers, producer, consumers, consumer);
+		if (report) {
+			System.out.printf("%-30s %11.1f%n", name, rate);
+		}
+	}
+
+	/**
+	 * Runs the producers and consumers until HANDOFFS items have passed and
+	 * returns the rate in millions of handoffs per second.
+	 */
+	private static double run(int producers, final Side producer,
+			int consumers, final Side consumer) throws InterruptedException {
+		Thread[] threads = new Thread[producers + consumers];
+		for (int i = 0; i < threads.length; i++) {
+			final Side side = i < producers ? producer : consumer;
+			final int count = HANDOFFS / (i < producers ? producers : consumers);
+			threads[i] = new Thread(new Runnable() {
+				public void run() {
+					try {
+						side.run(count);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			});
+		}
+
+		long start = System.nanoTime();
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		return HANDOFFS / ((System.nanoTime() - start) / 1e9) / 1e6;
+	}
+}
@@ -0,0 +1,95 @@
+import java.util.ArrayList;
+import java.util.List;
+
+import linearDataStructures.MPMCRingQueue;
+import linearDataStructures.SPSCRingQueue;
+import linearDataStructures.WaitStrategy;
+
+public class RingQueueTest {
+	public static void main(String[] args) throws InterruptedException {
+		final SPSCRingQueue spsc = new SPSCRingQueue(10, WaitStrategy.YIELD);
+		System.out.println("Capacity rounded up to: " + spsc.capacity());
+
+		// One producer hands numbers to the main thread, which checks that
+		// they arrive in order.
+		Thread producer = new Thread(new Runnable() {
+			public void run() {
+				try {
+					for (int i = 0; i < 100000; i++) {
+						spsc.put(new Integer(i));
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		producer.start();
+
+		boolean inOrder = true;
+		for (int i = 0; i < 100000; i++) {
+			inOrder &= ((Integer) spsc.take()).intValue() == i;
+		}
+		producer.join();
+		System.out.println("SPSC items in order: " + inOrder + ", empty: "
+				+ spsc.empty());
+
+		final MPMCRingQueue mpmc = new MPMCRingQueue(16);
+		System.out.println("Offered a batch of 20, accepted: "
+				+ mpmc.offerAll(batch(20)));
+		System.out.println("offer() on a full queue returns: "
+				+ mpmc.offer("one too many"));
+
+		List<Object> drained = new ArrayList<Object>();
+		System.out.println("Drained: " + mpmc.drainTo(drained, 10) + " "
+				+ drained);
+		System.out.println("poll() returns: " + mpmc.poll()
+				+ ", size is now: " + mpmc.size());
+
+		// The smallest queue still has two cells, so a second item is
+		// refused rather than overwriting the first.
+		MPMCRingQueue tiny = new MPMCRingQueue(1);
+		System.out.println("Capacity 1 rounded up to: " + tiny.capacity());
+		System.out.println("offer() A, B, C returns: " + tiny.offer("A") + " "
+				+ tiny.offer("B") + " " + tiny.offer("C"));
+		System.out.println("poll() returns: " + tiny.poll() + " "
+				+ tiny.poll() + " " + tiny.poll());
+
+		// Two producers and two consumers share the queue.
+		mpmc.drainTo(drained, mpmc.capacity());
+		Thread[] threads = new Thread[4];
+		final int[] taken = new int[2];
+		for (int t = 0; t < 4; t++) {
+			final int id = t;
+			threads[t] = new Thread(new Runnable() {
+				public void run() {
+					try {
+						for (int i = 0; i < 50000; i++) {
+							if (id < 2) {
+								mpmc.put("item " + i);
+							} else {
+								mpmc.take();
+								taken[id - 2] += 1;
+							}
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		System.out.println("MPMC consumers took " + taken[0] + " and "
+				+ taken[1] + " items, empty: " + mpmc.empty());
+	}
+
+	private static Object[] batch(int n) {
+		Object[] items = new Object[n];
+		for (int i = 0; i < n; i++) {
+			items[i] = new String(i + "th Entry");
+		}
+		return items;
+	}
+}
@@ -1,3 +1,6 @@
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
 import linearDataStructures.SequenceDLList;
 import linearDataStructures.SequenceDLList.SequenceDLListException;
 
@@ -29,6 +32,58 @@ public class SequenceDLListTest {
 			} catch (SequenceDLListException e) {
 				System.out.println(e);
 			}
+		System.out.println();
+
+		// Filter in one pass with an iterator, then edit around a cursor.
+		for (int i = 0; i < 26; i++) {
+			myList.insertLast(new Integer(i));
+		}
+		for (Iterator<Object> it = myList.iterator(); it.hasNext();) {
+			if ((Integer) it.next() % 3 != 0) {
+				it.remove();
+			}
+		}
+		try {
+			SequenceDLList.Cursor cursor = myList.cursorAt(2);
+			cursor.insertBefore("before 6");
+			cursor.insertAfter("after 6");
+			cursor.next();
+			cursor.next();
+			cursor.delete();
+		} catch (SequenceDLListException e) {
+			System.out.println(e);
+		}
+		for (Object o : myList) {
+			System.out.print(o + " ");
+		}
+		System.out.println();
+
+		// Split off the tail, move a run to another list and join them up
+		// again, all without copying.
+		try {
+			SequenceDLList rest = myList.splitAt(myList.cursorAt(4));
+			SequenceDLList moved = new SequenceDLList();
+			rest.splice(rest.cursorAt(1), rest.cursorAt(2), moved);
+			System.out.println("Sizes after split and splice: " + myList.size()
+					+ ", " + rest.size() + ", " + moved.size());
+			myList.concat(moved);
+			myList.concat(rest);
+		} catch (SequenceDLListException e) {
+			System.out.println(e);
+		}
+		for (Object o : myList) {
+			System.out.print(o + " ");
+		}
+		System.out.println();
+
+		// Changing the list directly invalidates open iterators.
+		Iterator<Object> stale = myList.iterator();
+		myList.insertFirst("new head");
+		try {
+			stale.next();
+		} catch (ConcurrentModificationException e) {
+			System.out.println(e);
+		}
 	}
 
 }
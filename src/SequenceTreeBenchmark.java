@@ -0,0 +1,72 @@
+import linearDataStructures.SequenceDLList;
+import linearDataStructures.SequenceTree;
+
+/**
+ * Times a loop over the indices of a sequence, reading every item and then
+ * inserting and deleting in the middle, with SequenceDLList and with
+ * SequenceTree at growing sizes. The list walks from its head on every call,
+ * so its time grows with the square of the size; the tree's grows as
+ * n log n.
+ */
+public class SequenceTreeBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		System.out.println("    items  SequenceDLList (ms)  SequenceTree (ms)");
+		for (int round = 0; round < 2; round++) {
+			for (int n = 5000; n <= 40000; n *= 2) {
+				long linked = timeList(n);
+				long tree = timeTree(n);
+				if (round == 1) {
+					System.out.printf("%9d  %19.1f  %17.1f%n", n, linked / 1e6,
+							tree / 1e6);
+				}
+			}
+		}
+	}
+
+	private static long timeList(int n) throws Exception {
+		SequenceDLList sequence = new SequenceDLList();
+		for (int i = 0; i < n; i++) {
+			sequence.insertLast(new Integer(i));
+		}
+
+		long start = System.nanoTime();
+		long checksum = 0;
+		for (int i = 0; i < sequence.size(); i++) {
+			checksum += (Integer) sequence.element(i);
+		}
+		for (int i = 0; i < n / 10; i++) {
+			sequence.insert(new Integer(i), n / 2);
+			sequence.delete(n / 2 + 1);
+		}
+		long time = System.nanoTime() - start;
+		check(checksum, n);
+		return time;
+	}
+
+	private static long timeTree(int n) throws Exception {
+		SequenceTree sequence = new SequenceTree();
+		for (int i = 0; i < n; i++) {
+			sequence.insertLast(new Integer(i));
+		}
+
+		long start = System.nanoTime();
+		long checksum = 0;
+		for (int i = 0; i < sequence.size(); i++) {
+			checksum += (Integer) sequence.element(i);
+		}
+		for (int i = 0; i < n / 10; i++) {
+			sequence.insert(new Integer(i), n / 2);
+			sequence.delete(n / 2 + 1);
+		}
+		long time = System.nanoTime() - start;
+		check(checksum, n);
+		return time;
+	}
+
+	private static void check(long checksum, int n) {
+		if (checksum != (long) n * (n - 1) / 2) {
+			throw new IllegalStateException("Wrong items read");
+		}
+	}
+}
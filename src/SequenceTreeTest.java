@@ -0,0 +1,30 @@
+import linearDataStructures.SequenceTree;
+import linearDataStructures.SequenceTree.SequenceTreeException;
+
+public class SequenceTreeTest {
+	public static void main(String[] args) {
+		SequenceTree mySequence = new SequenceTree();
+		for (int i = 0; i < 26; i++) {
+			mySequence.insertLast(new Character((char) ('a' + i)));
+		}
+		try {
+			mySequence.insert("middle", 13);
+			mySequence.delete(0);
+			System.out.println("Size " + mySequence.size() + ", first "
+					+ mySequence.first() + ", element 12 "
+					+ mySequence.element(12) + ", last " + mySequence.last());
+
+			// Indexed loops are O(n log n) rather than O(n^2).
+			for (int i = 0; i < mySequence.size(); i++) {
+				System.out.print(mySequence.element(i) + " ");
+			}
+			System.out.println();
+
+			mySequence.clear();
+			mySequence.deleteLast();
+		} catch (SequenceTreeException e) {
+			System.out.println(e);
+		}
+	}
+
+}
@@ -0,0 +1,103 @@
+import java.util.Random;
+
+import linearDataStructures.SequenceDLList;
+import linearDataStructures.SequenceUnrolledList;
+
+/**
+ * Compares SequenceUnrolledList with SequenceDLList on a sequence of a
+ * million items: the heap each occupies, the time for indexed reads at
+ * random positions and the time to drain it from both ends. Each list is
+ * measured twice and the second round is reported, once the JIT has
+ * settled.
+ */
+public class SequenceUnrolledListBenchmark {
+
+	private static final int ITEMS = 1000000;
+	private static final int READS = 2000;
+
+	public static void main(String[] args) throws Exception {
+		// The items are made up front, so that only the lists themselves
+		// are counted in the heap figures.
+		Integer[] items = new Integer[ITEMS];
+		for (int i = 0; i < ITEMS; i++) {
+			items[i] = new Integer(i);
+		}
+		Random random = new Random(42);
+		int[] positions = new int[READS];
+		for (int i = 0; i < READS; i++) {
+			positions[i] = random.nextInt(ITEMS);
+		}
+
+		for (int round = 0; round < 2; round++) {
+			boolean report = round == 1;
+			if (report) {
+				System.out.println("                      heap (MB)  read (us)  drain (ms)");
+			}
+
+			long before = usedMemory();
+			SequenceDLList linked = new SequenceDLList();
+			for (int i = 0; i < ITEMS; i++) {
+				linked.insertLast(items[i]);
+			}
+			long linkedBytes = usedMemory() - before;
+
+			long start = System.nanoTime();
+			long checksum = 0;
+			for (int i = 0; i < READS; i++) {
+				checksum += (Integer) linked.element(positions[i]);
+			}
+			long linkedRead = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			while (!linked.empty()) {
+				linked.deleteFirst();
+			}
+			long linkedDrain = System.nanoTime() - start;
+
+			before = usedMemory();
+			SequenceUnrolledList unrolled = new SequenceUnrolledList();
+			for (int i = 0; i < ITEMS; i++) {
+				unrolled.insertLast(items[i]);
+			}
+			long unrolledBytes = usedMemory() - before;
+
+			start = System.nanoTime();
+			for (int i = 0; i < READS; i++) {
+				checksum -= (Integer) unrolled.element(positions[i]);
+			}
+			long unrolledRead = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			while (!unrolled.empty()) {
+				unrolled.deleteFirst();
+				if (!unrolled.empty()) {
+					unrolled.deleteLast();
+				}
+			}
+			long unrolledDrain = System.nanoTime() - start;
+
+			if (checksum != 0) {
+				throw new IllegalStateException("Reads disagree");
+			}
+			if (report) {
+				print("SequenceDLList", linkedBytes, linkedRead, linkedDrain);
+				print("SequenceUnrolledList", unrolledBytes, unrolledRead,
+						unrolledDrain);
+			}
+		}
+	}
+
+	private static void print(String name, long bytes, long readNanos,
+			long drainNanos) {
+		System.out.printf("%-20s %10.1f %10.1f %11.1f%n", name, bytes / 1e6,
+				readNanos / 1e3 / READS, drainNanos / 1e6);
+	}
+
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
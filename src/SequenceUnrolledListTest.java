@@ -0,0 +1,38 @@
+import linearDataStructures.SequenceUnrolledList;
+import linearDataStructures.SequenceUnrolledList.SequenceUnrolledListException;
+
+public class SequenceUnrolledListTest {
+	public static void main(String[] args) {
+		SequenceUnrolledList myList = new SequenceUnrolledList();
+		for (int i = 0; i < 200; i++) {
+			myList.insertFirst(new Integer(i));
+		}
+		try {
+			myList.insert("middle", 100);
+			System.out.println("Size " + myList.size() + ", element 100: "
+					+ myList.element(100) + ", element 101: "
+					+ myList.element(101));
+			myList.delete(100);
+			System.out.println("After delete, element 100: "
+					+ myList.element(100));
+		} catch (SequenceUnrolledListException e) {
+			System.out.println(e);
+		}
+
+		while (!myList.empty())
+			try {
+				System.out.print(myList.last() + " ");
+				myList.deleteLast();
+			} catch (SequenceUnrolledListException e) {
+				System.out.println(e);
+			}
+		System.out.println();
+
+		try {
+			myList.deleteFirst();
+		} catch (SequenceUnrolledListException e) {
+			System.out.println(e);
+		}
+	}
+
+}
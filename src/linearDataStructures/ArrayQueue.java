@@ -0,0 +1,117 @@
+package linearDataStructures;
+
+/**
+ * <dl>
+ * <dt>Purpose: Implementation of Queue ADT.
+ * <dd>
+ *
+ * <dt>Description:
+ * <dd>This class is an implementation of the Queue using a circular buffer
+ * as the underlying data structure: an array whose used part runs from head
+ * round to the tail, wrapping at the end of the array. Its length is a power
+ * of two, so wrapping is a mask rather than a division. Items leave in the
+ * order they arrived (FIFO).
+ * <ul>
+ * <li>The capacity is unlimited: a full buffer doubles in size</li>
+ * <li>A buffer that drains to a quarter full halves in size, and clear()
+ * releases it, so memory follows the number of items queued</li>
+ * <li>enQueue and deQueue take O(1) amortised time</li>
+ * <li>There is no synchronisation; a queue must not be shared between
+ * threads without external locking</li>
+ * </ul>
+ * </dl>
+ *
+ * @author SamiStart
+ */
+
+public class ArrayQueue {
+
+	/**
+	 * Smallest length the buffer shrinks to.
+	 */
+	public static final int MIN_CAPACITY = 16;
+
+	private Object[] items;
+	private int head;
+	private int queueSize;
+
+	public ArrayQueue() {
+		items = new Object[MIN_CAPACITY];
+	}
+
+	public void enQueue(Object o) {
+		if (queueSize == items.length) {
+			resize(items.length * 2);
+		}
+		items[(head + queueSize) & (items.length - 1)] = o;
+		queueSize++;
+	}
+
+	public Object deQueue() throws ArrayQueueException {
+		if (queueSize == 0) {
+			throw new ArrayQueueException("Queue Underflow");
+		}
+
+		Object o = items[head];
+		items[head] = null;
+		head = (head + 1) & (items.length - 1);
+		queueSize--;
+
+		// Shrinking at a quarter rather than a half full means a queue that
+		// hovers around one size does not resize back and forth.
+		if (items.length > MIN_CAPACITY && queueSize <= items.length / 4) {
+			resize(items.length / 2);
+		}
+		return o;
+	}
+
+	public Object head() throws ArrayQueueException {
+		if (queueSize == 0) {
+			throw new ArrayQueueException("Queue Underflow");
+		}
+		return items[head];
+	}
+
+	public int size() {
+		return queueSize;
+	}
+
+	public boolean empty() {
+		return queueSize == 0;
+	}
+
+	public void clear() {
+		items = new Object[MIN_CAPACITY];
+		head = 0;
+		queueSize = 0;
+	}
+
+	/**
+	 * Moves the items, in order, to the start of a new buffer of length
+	 * capacity.
+	 */
+	private void resize(int capacity) {
+		Object[] newItems = new Object[capacity];
+		int firstPart = Math.min(queueSize, items.length - head);
+		System.arraycopy(items, head, newItems, 0, firstPart);
+		System.arraycopy(items, 0, newItems, firstPart, queueSize - firstPart);
+		items = newItems;
+		head = 0;
+	}
+
+	public class ArrayQueueException extends Exception {
+		/**
+		 *
+		 */
+		private static final long serialVersionUID = 1L;
+
+		public ArrayQueueException() {
+			super();
+		}
+
+		public ArrayQueueException(String s) {
+			super(s);
+		}
+	}
+
+}
@@ -0,0 +1,270 @@
+package linearDataStructures;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <dl>
+ * <dt>Purpose: Bounded blocking implementation of Queue ADT.
+ * <dd>
+ *
+ * <dt>Description:
+ * <dd>This class is an implementation of the Queue for passing items between
+ * any number of producer and consumer threads. The items sit in a circular
+ * buffer of fixed capacity guarded by one ReentrantLock. A producer that
+ * finds the queue full waits on the notFull condition and a consumer that
+ * finds it empty waits on notEmpty, so a slow consumer holds producers back
+ * rather than letting the queue grow without limit.
+ * <ul>
+ * <li>put() and take() wait as long as necessary; offer() and poll() with a
+ * timeout give up after it; offer() and poll() without one never wait</li>
+ * <li>takeUpTo() waits for one item, then takes as many as are there up to
+ * a limit, for the price of one lock acquisition</li>
+ * <li>Waiting is done with java.util.concurrent locks rather than
+ * synchronized, so a waiting virtual thread releases its carrier thread</li>
+ * <li>Null items are not allowed</li>
+ * </ul>
+ * </dl>
+ *
+ * @author SamiStart
+ */
+
+public class BlockingArrayQueue {
+
+	private final Object[] items;
+	private int head;
+	private int queueSize;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notEmpty = lock.newCondition();
+	private final Condition notFull = lock.newCondition();
+
+	/**
+	 * Constructs a queue holding at most capacity items.
+	 */
+	public BlockingArrayQueue(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity out of range: "
+					+ capacity);
+		}
+		items = new Object[capacity];
+	}
+
+	/**
+	 * Adds o at the tail of the queue, waiting for room.
+	 */
+	public void put(Object o) throws InterruptedException {
+		if (o == null) {
+			throw new NullPointerException();
+		}
+
+		lock.lockInterruptibly();
+		try {
+			while (queueSize == items.length) {
+				notFull.await();
+			}
+			enQueue(o);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds o at the tail of the queue if there is room.
+	 */
+	public boolean offer(Object o) {
+		if (o == null) {
+			throw new NullPointerException();
+		}
+
+		lock.lock();
+		try {
+			if (queueSize == items.length) {
+				return false;
+			}
+			enQueue(o);
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds o at the tail of the queue, waiting up to timeout for room;
+	 * returns false if there was none.
+	 */
+	public boolean offer(Object o, long timeout, TimeUnit unit)
+			throws InterruptedException {
+		if (o == null) {
+			throw new NullPointerException();
+		}
+
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try {
+			while (queueSize == items.length) {
+				if (nanos <= 0) {
+					return false;
+				}
+				nanos = notFull.awaitNanos(nanos);
+			}
+			enQueue(o);
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes and returns the item at the head of the queue, waiting for
+	 * one.
+	 */
+	public Object take() throws InterruptedException {
+		lock.lockInterruptibly();
+		try {
+			while (queueSize == 0) {
+				notEmpty.await();
+			}
+			return deQueue();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes and returns the item at the head of the queue, or null if it
+	 * is empty.
+	 */
+	public Object poll() {
+		lock.lock();
+		try {
+			return queueSize == 0 ? null : deQueue();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes and returns the item at the head of the queue, waiting up to
+	 * timeout for one; returns null if none arrived.
+	 */
+	public Object poll(long timeout, TimeUnit unit) throws InterruptedException {
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try {
+			while (queueSize == 0) {
+				if (nanos <= 0) {
+					return null;
+				}
+				nanos = notEmpty.awaitNanos(nanos);
+			}
+			return deQueue();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Waits for the queue to hold an item, then removes up to maxItems items
+	 * from its head and returns them in order.
+	 */
+	public List<Object> takeUpTo(int maxItems) throws InterruptedException {
+		if (maxItems < 1) {
+			throw new IllegalArgumentException("maxItems out of range: "
+					+ maxItems);
+		}
+
+		lock.lockInterruptibly();
+		try {
+			while (queueSize == 0) {
+				notEmpty.await();
+			}
+
+			int n = Math.min(maxItems, queueSize);
+			List<Object> taken = new ArrayList<Object>(n);
+			for (int i = 0; i < n; i++) {
+				taken.add(items[head]);
+				items[head] = null;
+				head = next(head);
+			}
+			queueSize -= n;
+
+			// Room was made for n items, so up to n producers can go on.
+			if (n == 1) {
+				notFull.signal();
+			} else {
+				notFull.signalAll();
+			}
+			return taken;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of items in the queue; only a snapshot while other
+	 * threads are active.
+	 */
+	public int size() {
+		lock.lock();
+		try {
+			return queueSize;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public boolean empty() {
+		return size() == 0;
+	}
+
+	public int capacity() {
+		return items.length;
+	}
+
+	/**
+	 * Empties the queue and lets every waiting producer go on.
+	 */
+	public void clear() {
+		lock.lock();
+		try {
+			for (int i = 0; i < queueSize; i++) {
+				items[head] = null;
+				head = next(head);
+			}
+			head = 0;
+			queueSize = 0;
+			notFull.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// private methods called with the lock held.
+
+	private void enQueue(Object o) {
+		int tail = head + queueSize;
+		if (tail >= items.length) {
+			tail -= items.length;
+		}
+		items[tail] = o;
+		queueSize++;
+		notEmpty.signal();
+	}
+
+	private Object deQueue() {
+		Object o = items[head];
+		items[head] = null;
+		head = next(head);
+		queueSize--;
+		notFull.signal();
+		return o;
+	}
+
+	private int next(int index) {
+		return index + 1 == items.length ? 0 : index + 1;
+	}
+}
@@ -0,0 +1,306 @@
+package linearDataStructures;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <dl>
+ * <dt>Purpose: Lock-free concurrent implementation of the end operations of
+ * the Sequence ADT.
+ * <dd>
+ *
+ * <dt>Description:
+ * <dd>This class is a deque that any number of threads can share without
+ * locking. It offers the operations at the ends of SequenceDLList. It
+ * follows Michael's lock-free deque ("CAS-Based Lock-Free Algorithm for
+ * Shared Deques", 2003): a doubly linked list whose two end pointers live
+ * together in one immutable anchor, along with a status telling whether a
+ * push at either end still has to link the old end node to the new one.
+ * Every change swaps in a new anchor with a single compare-and-set. Any
+ * thread that finds a push unfinished completes it before trying its own
+ * operation, so no thread ever waits for another. Every operation is
+ * linearizable at the compare-and-set of the anchor it succeeds with.
+ *
+ * <dd>deleteFirst() and deleteLast() return the item they remove, as reading
+ * it with first() or last() beforehand would not be atomic. They also clear
+ * the new end's link to the removed node, so removed nodes can be garbage
+ * collected even if the deque never empties.
+ * </dl>
+ *
+ * @author SamiStart
+ */
+
+public class ConcurrentSequenceDeque {
+
+	public class ConcurrentSequenceDequeException extends Exception {
+
+		/**
+		 *
+		 */
+		private static final long serialVersionUID = 1L;
+
+		public ConcurrentSequenceDequeException() {
+			super();
+		}
+
+		public ConcurrentSequenceDequeException(String s) {
+			super(s);
+		}
+	}
+
+	/**
+	 * Member class Node holds an item and the links to its neighbours. The
+	 * link from the end node inwards is always valid; the link from its
+	 * neighbour outwards may lag behind while a push is unfinished.
+	 */
+	protected static final class Node {
+
+		Node(Object o) {
+			datum = o;
+		}
+
+		protected final Object datum;
+		protected final AtomicReference<Node> left = new AtomicReference<Node>();
+		protected final AtomicReference<Node> right = new AtomicReference<Node>();
+	}
+
+	private static final int STABLE = 0;
+	private static final int RPUSH = 1;
+	private static final int LPUSH = 2;
+
+	/**
+	 * Member class Anchor is an immutable snapshot of both ends of the deque
+	 * and of the push, if any, that still has to be completed. Anchors are
+	 * never reused, so comparing them by identity cannot suffer from ABA.
+	 */
+	private static final class Anchor {
+
+		Anchor(Node l, Node r, int s) {
+			left = l;
+			right = r;
+			status = s;
+		}
+
+		final Node left;
+		final Node right;
+		final int status;
+	}
+
+	private static final Anchor EMPTY = new Anchor(null, null, STABLE);
+
+	private final AtomicReference<Anchor> anchor = new AtomicReference<Anchor>(
+			EMPTY);
+
+	/**
+	 * Constructs an empty deque.
+	 */
+	public ConcurrentSequenceDeque() {
+	}
+
+	/**
+	 * Adds a new item at the beginning of the sequence.
+	 */
+	public void insertFirst(Object o) {
+		Node node = new Node(o);
+		while (true) {
+			Anchor a = anchor.get();
+			if (a.left == null) {
+				if (anchor.compareAndSet(a, new Anchor(node, node, STABLE))) {
+					return;
+				}
+			} else if (a.status == STABLE) {
+				node.right.set(a.left);
+				Anchor pushed = new Anchor(node, a.right, LPUSH);
+				if (anchor.compareAndSet(a, pushed)) {
+					stabilizeLeft(pushed);
+					return;
+				}
+			} else {
+				stabilize(a);
+			}
+		}
+	}
+
+	/**
+	 * Adds a new item at the end of the sequence.
+	 */
+	public void insertLast(Object o) {
+		Node node = new Node(o);
+		while (true) {
+			Anchor a = anchor.get();
+			if (a.right == null) {
+				if (anchor.compareAndSet(a, new Anchor(node, node, STABLE))) {
+					return;
+				}
+			} else if (a.status == STABLE) {
+				node.left.set(a.right);
+				Anchor pushed = new Anchor(a.left, node, RPUSH);
+				if (anchor.compareAndSet(a, pushed)) {
+					stabilizeRight(pushed);
+					return;
+				}
+			} else {
+				stabilize(a);
+			}
+		}
+	}
+
+	/**
+	 * Removes and returns the item at the beginning of the sequence.
+	 */
+	public Object deleteFirst() throws ConcurrentSequenceDequeException {
+		while (true) {
+			Anchor a = anchor.get();
+			if (a.left == null) {
+				throw new ConcurrentSequenceDequeException("Sequence Underflow");
+			}
+			if (a.left == a.right) {
+				if (anchor.compareAndSet(a, EMPTY)) {
+					return a.left.datum;
+				}
+			} else if (a.status == STABLE) {
+				Node next = a.left.right.get();
+				if (anchor.compareAndSet(a, new Anchor(next, a.right, STABLE))) {
+					unlinkLeft(next, a.left);
+					return a.left.datum;
+				}
+			} else {
+				stabilize(a);
+			}
+		}
+	}
+
+	/**
+	 * Removes and returns the item at the end of the sequence.
+	 */
+	public Object deleteLast() throws ConcurrentSequenceDequeException {
+		while (true) {
+			Anchor a = anchor.get();
+			if (a.right == null) {
+				throw new ConcurrentSequenceDequeException("Sequence Underflow");
+			}
+			if (a.left == a.right) {
+				if (anchor.compareAndSet(a, EMPTY)) {
+					return a.right.datum;
+				}
+			} else if (a.status == STABLE) {
+				Node previous = a.right.left.get();
+				if (anchor.compareAndSet(a, new Anchor(a.left, previous, STABLE))) {
+					unlinkRight(previous, a.right);
+					return a.right.datum;
+				}
+			} else {
+				stabilize(a);
+			}
+		}
+	}
+
+	/**
+	 * Returns the item at the beginning of the sequence.
+	 */
+	public Object first() throws ConcurrentSequenceDequeException {
+		Node node = anchor.get().left;
+		if (node == null) {
+			throw new ConcurrentSequenceDequeException(
+					"Indexed Element out of Range");
+		}
+		return node.datum;
+	}
+
+	/**
+	 * Returns the item at the end of the sequence.
+	 */
+	public Object last() throws ConcurrentSequenceDequeException {
+		Node node = anchor.get().right;
+		if (node == null) {
+			throw new ConcurrentSequenceDequeException(
+					"Indexed Element out of Range");
+		}
+		return node.datum;
+	}
+
+	/**
+	 * Tests whether there are any items in the sequence.
+	 */
+	public boolean empty() {
+		return anchor.get().left == null;
+	}
+
+	/**
+	 * Empties the sequence.
+	 */
+	public void clear() {
+		anchor.set(EMPTY);
+	}
+
+	// private methods detaching a removed end node.
+
+	/**
+	 * Clears the link from the new left end to the node just removed before
+	 * it. Otherwise every node ever removed from the left would stay
+	 * reachable from the deque through these links. The compare-and-set
+	 * leaves alone a link that a push has already pointed at a new node;
+	 * a thread still holding an anchor with the removed node fails its own
+	 * compare-and-set or, when stabilizing, finds the anchor changed.
+	 */
+	private static void unlinkLeft(Node end, Node removed) {
+		end.left.compareAndSet(removed, null);
+	}
+
+	/**
+	 * Mirror image of unlinkLeft() for a node removed at the right end.
+	 */
+	private static void unlinkRight(Node end, Node removed) {
+		end.right.compareAndSet(removed, null);
+	}
+
+	// private methods completing an unfinished push.
+
+	private void stabilize(Anchor a) {
+		if (a.status == RPUSH) {
+			stabilizeRight(a);
+		} else {
+			stabilizeLeft(a);
+		}
+	}
+
+	/**
+	 * Links the node before the new right end to it, then marks the anchor
+	 * stable. Any step may already have been done by another thread.
+	 */
+	private void stabilizeRight(Anchor a) {
+		Node previous = a.right.left.get();
+		if (anchor.get() != a) {
+			return;
+		}
+		Node previousNext = previous.right.get();
+		if (previousNext != a.right) {
+			if (anchor.get() != a) {
+				return;
+			}
+			if (!previous.right.compareAndSet(previousNext, a.right)) {
+				return;
+			}
+		}
+		anchor.compareAndSet(a, new Anchor(a.left, a.right, STABLE));
+	}
+
+	/**
+	 * Mirror image of stabilizeRight() for a push at the left end.
+	 */
+	private void stabilizeLeft(Anchor a) {
+		Node next = a.left.right.get();
+		if (anchor.get() != a) {
+			return;
+		}
+		Node nextPrevious = next.left.get();
+		if (nextPrevious != a.left) {
+			if (anchor.get() != a) {
+				return;
+			}
+			if (!next.left.compareAndSet(nextPrevious, a.left)) {
+				return;
+			}
+		}
+		anchor.compareAndSet(a, new Anchor(a.left, a.right, STABLE));
+	}
+}
@@ -0,0 +1,246 @@
+package linearDataStructures;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <dl>
+ * <dt>Purpose: Bounded multi-producer, multi-consumer queue.
+ * <dd>
+ *
+ * <dt>Description:
+ * <dd>This class is an implementation of the Queue that any number of
+ * producer and consumer threads can share without locking. It follows
+ * Vyukov's bounded MPMC queue. Every cell of the ring buffer carries a
+ * sequence number that says whose turn it is: the cell for position p is
+ * free for the producer of p when its sequence is p, and holds an item for
+ * the consumer of p when its sequence is p + 1. A thread claims a position
+ * with a compare-and-set on the shared tail or head, which are
+ * PaddedSequences. It then fills or empties the cell and hands the cell on
+ * by advancing its sequence. A thread that has claimed a position never
+ * has to wait for another one to finish.
+ *
+ * <dd>offer() and poll() never wait; put() and take() wait as the
+ * WaitStrategy directs. offerAll() and drainTo() claim a run of positions
+ * with a single compare-and-set. Null items are not allowed.
+ * </dl>
+ *
+ * @author SamiStart
+ */
+
+public class MPMCRingQueue {
+
+	private final Object[] buffer;
+	private final AtomicLongArray sequences;
+	private final int mask;
+	private final WaitStrategy waitStrategy;
+
+	// Next position to read and next position to write.
+	private final PaddedSequence head = new PaddedSequence(0);
+	private final PaddedSequence tail = new PaddedSequence(0);
+
+	/**
+	 * Constructs a queue holding at least capacity items, which waits by
+	 * parking.
+	 */
+	public MPMCRingQueue(int capacity) {
+		this(capacity, WaitStrategy.PARK);
+	}
+
+	/**
+	 * Constructs a queue holding at least capacity items, rounded up to a
+	 * power of two and to at least two, which waits as waitStrategy directs.
+	 */
+	public MPMCRingQueue(int capacity, WaitStrategy waitStrategy) {
+		if (capacity < 1 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("Capacity out of range: "
+					+ capacity);
+		}
+		// A single cell cannot work: its sequence would read the same when
+		// it is full for position p as when it is free for position p + 1.
+		int length = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+		buffer = new Object[length];
+		sequences = new AtomicLongArray(length);
+		for (int i = 0; i < length; i++) {
+			sequences.set(i, i);
+		}
+		mask = length - 1;
+		this.waitStrategy = waitStrategy;
+	}
+
+	/**
+	 * Adds o at the tail of the queue if there is room.
+	 */
+	public boolean offer(Object o) {
+		if (o == null) {
+			throw new NullPointerException();
+		}
+
+		long t = tail.get();
+		while (true) {
+			long ready = sequences.get((int) t & mask) - t;
+			if (ready == 0) {
+				if (tail.compareAndSet(t, t + 1)) {
+					break;
+				}
+				t = tail.get();
+			} else if (ready < 0) {
+				// The cell still holds the item from a lap ago: full.
+				return false;
+			} else {
+				// Another producer took position t.
+				t = tail.get();
+			}
+		}
+
+		int index = (int) t & mask;
+		buffer[index] = o;
+		sequences.lazySet(index, t + 1);
+		return true;
+	}
+
+	/**
+	 * Adds o at the tail of the queue, waiting for room.
+	 */
+	public void put(Object o) throws InterruptedException {
+		int attempts = 0;
+		while (!offer(o)) {
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+			waitStrategy.idle(attempts++);
+		}
+	}
+
+	/**
+	 * Adds as many of items as there is room for, in order, and returns how
+	 * many were added.
+	 */
+	public int offerAll(Object[] items) {
+		for (Object o : items) {
+			if (o == null) {
+				throw new NullPointerException();
+			}
+		}
+
+		long t;
+		int n;
+		do {
+			// Count the free cells from the tail on. They stay free until
+			// their positions are claimed, so the count holds if the
+			// compare-and-set succeeds.
+			t = tail.get();
+			n = 0;
+			while (n < items.length
+					&& sequences.get((int) (t + n) & mask) == t + n) {
+				n += 1;
+			}
+			if (n == 0) {
+				return 0;
+			}
+		} while (!tail.compareAndSet(t, t + n));
+
+		for (int i = 0; i < n; i++) {
+			int index = (int) (t + i) & mask;
+			buffer[index] = items[i];
+			sequences.lazySet(index, t + i + 1);
+		}
+		return n;
+	}
+
+	/**
+	 * Removes and returns the item at the head of the queue, or null if it
+	 * is empty.
+	 */
+	public Object poll() {
+		long h = head.get();
+		while (true) {
+			long ready = sequences.get((int) h & mask) - (h + 1);
+			if (ready == 0) {
+				if (head.compareAndSet(h, h + 1)) {
+					break;
+				}
+				h = head.get();
+			} else if (ready < 0) {
+				// The cell has not been filled yet: empty.
+				return null;
+			} else {
+				// Another consumer took position h.
+				h = head.get();
+			}
+		}
+
+		int index = (int) h & mask;
+		Object o = buffer[index];
+		buffer[index] = null;
+		sequences.lazySet(index, h + buffer.length);
+		return o;
+	}
+
+	/**
+	 * Removes and returns the item at the head of the queue, waiting for
+	 * one.
+	 */
+	public Object take() throws InterruptedException {
+		int attempts = 0;
+		Object o;
+		while ((o = poll()) == null) {
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+			waitStrategy.idle(attempts++);
+		}
+		return o;
+	}
+
+	/**
+	 * Removes up to maxItems items from the head of the queue and adds them
+	 * to target in order; returns how many were moved.
+	 */
+	public int drainTo(Collection<Object> target, int maxItems) {
+		if (maxItems < 0) {
+			throw new IllegalArgumentException("maxItems out of range: "
+					+ maxItems);
+		}
+
+		long h;
+		int n;
+		do {
+			h = head.get();
+			n = 0;
+			while (n < maxItems
+					&& sequences.get((int) (h + n) & mask) == h + n + 1) {
+				n += 1;
+			}
+			if (n == 0) {
+				return 0;
+			}
+		} while (!head.compareAndSet(h, h + n));
+
+		for (int i = 0; i < n; i++) {
+			int index = (int) (h + i) & mask;
+			target.add(buffer[index]);
+			buffer[index] = null;
+			sequences.lazySet(index, h + i + buffer.length);
+		}
+		return n;
+	}
+
+	/**
+	 * Returns the number of items in the queue; only a snapshot while other
+	 * threads are active.
+	 */
+	public int size() {
+		long h = head.get();
+		long t = tail.get();
+		return (int) Math.max(0, Math.min(t - h, buffer.length));
+	}
+
+	public boolean empty() {
+		return size() == 0;
+	}
+
+	public int capacity() {
+		return buffer.length;
+	}
+}
@@ -0,0 +1,64 @@
+package linearDataStructures;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Padding laid out before the value of a PaddedSequence. Fields of a
+ * superclass come first in an object, so these sit between the value and
+ * anything allocated just before it.
+ */
+abstract class SequenceLeftPadding {
+	protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+/**
+ * The value of a PaddedSequence, between its two paddings, and a plain
+ * field for the thread that owns the value to keep its own data in.
+ */
+abstract class SequenceValue extends SequenceLeftPadding {
+	protected volatile long value;
+	protected long cache;
+}
+
+/**
+ * A counter that sits alone on its cache line. The ring queues keep their
+ * producer and consumer positions in these, so a thread updating one does
+ * not keep invalidating the cache line holding the other (false sharing).
+ * Seven longs of padding on each side cover a 64-byte line whatever the
+ * alignment of the object.
+ *
+ * <p>cache shares the line with value. It is meant for data only the thread
+ * that writes value touches, such as SPSCRingQueue's copy of the other
+ * side's position, so that data does not need a padded line of its own.
+ */
+final class PaddedSequence extends SequenceValue {
+
+	private static final AtomicLongFieldUpdater<SequenceValue> VALUE = AtomicLongFieldUpdater
+			.newUpdater(SequenceValue.class, "value");
+
+	protected long p9, p10, p11, p12, p13, p14, p15;
+
+	PaddedSequence(long initial) {
+		value = initial;
+	}
+
+	long get() {
+		return value;
+	}
+
+	void set(long v) {
+		value = v;
+	}
+
+	/**
+	 * Ordered store: earlier writes are visible before the new value, but
+	 * the writer does not wait for it to reach other threads.
+	 */
+	void lazySet(long v) {
+		VALUE.lazySet(this, v);
+	}
+
+	boolean compareAndSet(long expected, long v) {
+		return VALUE.compareAndSet(this, expected, v);
+	}
+}
@@ -0,0 +1,203 @@
+package linearDataStructures;
+
+import java.util.Collection;
+
+/**
+ * <dl>
+ * <dt>Purpose: Bounded single-producer, single-consumer queue.
+ * <dd>
+ *
+ * <dt>Description:
+ * <dd>This class is an implementation of the Queue for handing items from
+ * exactly one producer thread to exactly one consumer thread, on a ring
+ * buffer whose length is a power of two. No locks and no compare-and-set are
+ * needed: only the producer advances the tail and only the consumer
+ * advances the head. Each publishes its position with an ordered store, and
+ * each keeps a cached copy of the other's position so it reads the shared
+ * counter only when the cached one says the queue is full or empty. The
+ * head and tail are PaddedSequences, and each cached copy is kept in the
+ * cache field of its owner's sequence. Each thread therefore writes to a
+ * cache line of its own, which the other reads only when its cached copy
+ * runs out.
+ *
+ * <dd>offer() and poll() never wait; put() and take() wait as the
+ * WaitStrategy directs. offerAll() and drainTo() move a batch of items for
+ * a single update of the shared position. Null items are not allowed.
+ * </dl>
+ *
+ * @author SamiStart
+ */
+
+public class SPSCRingQueue {
+
+	private final Object[] buffer;
+	private final int mask;
+	private final WaitStrategy waitStrategy;
+
+	// Next position to read, written only by the consumer; its cache field
+	// is the consumer's last view of tail.
+	private final PaddedSequence head = new PaddedSequence(0);
+	// Next position to write, written only by the producer; its cache field
+	// is the producer's last view of head.
+	private final PaddedSequence tail = new PaddedSequence(0);
+
+	/**
+	 * Constructs a queue holding at least capacity items, which waits by
+	 * parking.
+	 */
+	public SPSCRingQueue(int capacity) {
+		this(capacity, WaitStrategy.PARK);
+	}
+
+	/**
+	 * Constructs a queue holding at least capacity items, rounded up to a
+	 * power of two, which waits as waitStrategy directs.
+	 */
+	public SPSCRingQueue(int capacity, WaitStrategy waitStrategy) {
+		if (capacity < 1 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("Capacity out of range: "
+					+ capacity);
+		}
+		int length = Integer.highestOneBit(capacity - 1) << 1;
+		buffer = new Object[Math.max(1, length)];
+		mask = buffer.length - 1;
+		this.waitStrategy = waitStrategy;
+	}
+
+	/**
+	 * Adds o at the tail of the queue if there is room. Producer only.
+	 */
+	public boolean offer(Object o) {
+		if (o == null) {
+			throw new NullPointerException();
+		}
+
+		long t = tail.get();
+		if (t - tail.cache == buffer.length) {
+			tail.cache = head.get();
+			if (t - tail.cache == buffer.length) {
+				return false;
+			}
+		}
+		buffer[(int) t & mask] = o;
+		tail.lazySet(t + 1);
+		return true;
+	}
+
+	/**
+	 * Adds o at the tail of the queue, waiting for room. Producer only.
+	 */
+	public void put(Object o) throws InterruptedException {
+		int attempts = 0;
+		while (!offer(o)) {
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+			waitStrategy.idle(attempts++);
+		}
+	}
+
+	/**
+	 * Adds as many of items as there is room for, in order, and returns how
+	 * many were added. Producer only.
+	 */
+	public int offerAll(Object[] items) {
+		long t = tail.get();
+		long room = buffer.length - (t - tail.cache);
+		if (room < items.length) {
+			tail.cache = head.get();
+			room = buffer.length - (t - tail.cache);
+		}
+
+		int n = (int) Math.min(room, items.length);
+		for (int i = 0; i < n; i++) {
+			if (items[i] == null) {
+				n = i;
+				tail.lazySet(t + n);
+				throw new NullPointerException();
+			}
+			buffer[(int) (t + i) & mask] = items[i];
+		}
+		tail.lazySet(t + n);
+		return n;
+	}
+
+	/**
+	 * Removes and returns the item at the head of the queue, or null if it
+	 * is empty. Consumer only.
+	 */
+	public Object poll() {
+		long h = head.get();
+		if (h == head.cache) {
+			head.cache = tail.get();
+			if (h == head.cache) {
+				return null;
+			}
+		}
+
+		int index = (int) h & mask;
+		Object o = buffer[index];
+		buffer[index] = null;
+		head.lazySet(h + 1);
+		return o;
+	}
+
+	/**
+	 * Removes and returns the item at the head of the queue, waiting for
+	 * one. Consumer only.
+	 */
+	public Object take() throws InterruptedException {
+		int attempts = 0;
+		Object o;
+		while ((o = poll()) == null) {
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+			waitStrategy.idle(attempts++);
+		}
+		return o;
+	}
+
+	/**
+	 * Removes up to maxItems items from the head of the queue and adds them
+	 * to target in order; returns how many were moved. Consumer only.
+	 */
+	public int drainTo(Collection<Object> target, int maxItems) {
+		if (maxItems < 0) {
+			throw new IllegalArgumentException("maxItems out of range: "
+					+ maxItems);
+		}
+
+		long h = head.get();
+		if (head.cache - h < maxItems) {
+			head.cache = tail.get();
+		}
+
+		int n = (int) Math.min(head.cache - h, maxItems);
+		for (int i = 0; i < n; i++) {
+			int index = (int) (h + i) & mask;
+			target.add(buffer[index]);
+			buffer[index] = null;
+		}
+		head.lazySet(h + n);
+		return n;
+	}
+
+	/**
+	 * Returns the number of items in the queue; only a snapshot while the
+	 * other thread is active.
+	 */
+	public int size() {
+		// Read head first, so that the difference is never negative.
+		long h = head.get();
+		return (int) (tail.get() - h);
+	}
+
+	public boolean empty() {
+		return size() == 0;
+	}
+
+	public int capacity() {
+		return buffer.length;
+	}
+}
@@ -1,7 +1,9 @@
 package linearDataStructures;
 
-
-
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
 
 /**
  * <dl>
@@ -11,13 +13,26 @@ package linearDataStructures;
  * <dt>Description:
  * <dd>This class is an implementation of the Sequence using a double linked list as
  * the underlying data structure. The capacity is therefore unlimited and
- * overflow does not need to be checked.
+ * overflow does not need to be checked. The number of items is kept in a
+ * counter, so size() is O(1) except straight after a split or splice, when
+ * the items are counted once again.
+ *
+ * <dd>A Cursor marks an item of the sequence and can move to its neighbours,
+ * insert before or after it and delete it, each in O(1) time, so a pass that
+ * edits the sequence as it goes is O(n). The sequence is also Iterable and
+ * offers a java.util.ListIterator. Cursors and iterators are fail-fast: once
+ * the sequence has been changed other than through them, their next
+ * operation throws ConcurrentModificationException.
+ *
+ * <dd>concat(), splitAt() and splice() move whole runs of nodes from one list
+ * to another by relinking the nodes at either end, in O(1) time and without
+ * copying any items.
  * </dl>
  * 
  * @author SamiStart
  */
 
-public class SequenceDLList {
+public class SequenceDLList implements Iterable<Object> {
 	
 	public class SequenceDLListException extends Exception {
 
@@ -67,6 +82,14 @@ public class SequenceDLList {
 	private Node listHead;
 	private Node listTail;
 
+	// The number of items in the sequence, or -1 if it is not known since a
+	// split or splice.
+	private int size;
+
+	// Number of structural changes so far, which lets cursors and iterators
+	// detect changes made behind their backs.
+	protected int modCount;
+
 	// Only require a single constructor, which sets both object
 	// references to null.
 	/**
@@ -91,8 +114,10 @@ public class SequenceDLList {
 		// In the general case, we simply add a new node at the beginning
 		// of the list via the head pointer.
 		else {
-			listHead = new Node(o, listHead, null);
+			listHead.previous = new Node(o, listHead, null);
+			listHead = listHead.previous;
 		}
+		changed(1);
 	}
 
 	//Extract this method to initialise head and tail when list is empty
@@ -119,6 +144,7 @@ public class SequenceDLList {
 			listTail.next = new Node(o, listTail.next, listTail);
 			listTail = listTail.next;
 		}
+		changed(1);
 	}
 
 	/**
@@ -136,6 +162,8 @@ public class SequenceDLList {
 		if (listHead == null) {
 			if (index == 0) {
 				initialise(o);
+				size = 1;
+				modCount += 1;
 			} else {
 				throw new SequenceDLListException(
 						"Indexed element is out of range");
@@ -177,7 +205,8 @@ public class SequenceDLList {
 			}
 			else {
 				nodePointer.next = new Node(o, nodePointer.next, nodePointer);
-			    nodePointer.next.next.previous = nodePointer.next;
+				nodePointer.next.next.previous = nodePointer.next;
+				changed(1);
 			}
 		}
 	}
@@ -204,6 +233,7 @@ public class SequenceDLList {
 			listHead = listHead.next;
 			listHead.previous=null;
 		}
+		changed(-1);
 	}
 
 	/**
@@ -228,6 +258,7 @@ public class SequenceDLList {
 			listTail = listTail.previous;
 			listTail.next=null;
 		}
+		changed(-1);
 	}
 
 	/**
@@ -250,6 +281,8 @@ public class SequenceDLList {
 			if (index == 0) {
 				listHead = null;
 				listTail = null;
+				size = 0;
+				modCount += 1;
 			} else {
 				throw new SequenceDLListException(
 						"Indexed element is out of range.");
@@ -283,9 +316,11 @@ public class SequenceDLList {
 			if (nodePointer.next == listTail) {
 				listTail = nodePointer;
 				listTail.next=null;
+			} else {
+				nodePointer.next = nodePointer.next.next;
+				nodePointer.next.previous=nodePointer;
 			}
-			nodePointer.next = nodePointer.next.next;
-			nodePointer.next.previous=nodePointer;
+			changed(-1);
 		}
 	}
 
@@ -315,8 +350,8 @@ public class SequenceDLList {
 	 * Returns the item at the specified position in the sequence.
 	 */
 	public Object element(int index) throws SequenceDLListException {
-		// Check the index is positive.
-		if (index < 0) {
+		// Check the index is in range.
+		if (index < 0 || index >= size()) {
 			throw new SequenceDLListException("Indexed Element out of Range");
 		}
 
@@ -349,22 +384,493 @@ public class SequenceDLList {
 	 * Returns the number of items in the sequence.
 	 */
 	public int size() {
-		// Chain down the list counting the elements
-
-		Node nodePointer = listHead;
-		int size = 0;
-		while (nodePointer != null) {
-			size += 1;
-			nodePointer = nodePointer.next;
+		if (size < 0) {
+			// Chain down the list counting the elements
+			Node nodePointer = listHead;
+			size = 0;
+			while (nodePointer != null) {
+				size += 1;
+				nodePointer = nodePointer.next;
+			}
 		}
 		return size;
 	}
 
+	/**
+	 * Returns a cursor on the first item of the sequence.
+	 */
+	public Cursor cursorAtFirst() throws SequenceDLListException {
+		if (listHead == null) {
+			throw new SequenceDLListException("Sequence Underflow");
+		}
+		return new Cursor(listHead);
+	}
+
+	/**
+	 * Returns a cursor on the last item of the sequence.
+	 */
+	public Cursor cursorAtLast() throws SequenceDLListException {
+		if (listTail == null) {
+			throw new SequenceDLListException("Sequence Underflow");
+		}
+		return new Cursor(listTail);
+	}
+
+	/**
+	 * Returns a cursor on the item at the specified position in the sequence.
+	 */
+	public Cursor cursorAt(int index) throws SequenceDLListException {
+		if (index < 0 || index >= size()) {
+			throw new SequenceDLListException("Indexed Element out of Range");
+		}
+		return new Cursor(nodeAt(index));
+	}
+
+	/**
+	 * Returns an iterator over the items in sequence order.
+	 */
+	public Iterator<Object> iterator() {
+		return new SequenceIterator(listHead, 0);
+	}
+
+	/**
+	 * Returns a list iterator starting at the beginning of the sequence.
+	 */
+	public ListIterator<Object> listIterator() {
+		return new SequenceIterator(listHead, 0);
+	}
+
+	/**
+	 * Returns a list iterator whose first call to next() returns the item at
+	 * index; index may be size() to start at the end.
+	 */
+	public ListIterator<Object> listIterator(int index) {
+		if (index < 0 || index > size()) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: "
+					+ size);
+		}
+		return new SequenceIterator(index == size ? null : nodeAt(index), index);
+	}
+
+	/**
+	 * Moves all the items of other to the end of this sequence in O(1) time,
+	 * leaving other empty.
+	 */
+	public void concat(SequenceDLList other) {
+		if (other == this) {
+			throw new IllegalArgumentException("Cannot concatenate a sequence to itself");
+		}
+		if (other.listHead == null) {
+			return;
+		}
+
+		if (listHead == null) {
+			listHead = other.listHead;
+		} else {
+			listTail.next = other.listHead;
+			other.listHead.previous = listTail;
+		}
+		listTail = other.listTail;
+		size = (size >= 0 && other.size >= 0) ? size + other.size : -1;
+		modCount += 1;
+
+		other.clear();
+	}
+
+	/**
+	 * Splits the sequence in O(1) time before the item marked by cursor:
+	 * this sequence keeps the items before it and the returned one holds
+	 * that item and all those after it. The cursor cannot be used
+	 * afterwards.
+	 */
+	public SequenceDLList splitAt(Cursor cursor) throws SequenceDLListException {
+		Node first = ownNode(cursor);
+		SequenceDLList rest = new SequenceDLList();
+
+		rest.listHead = first;
+		rest.listTail = listTail;
+		if (first.previous == null) {
+			// Everything moves across.
+			rest.size = size;
+			listHead = null;
+			listTail = null;
+			size = 0;
+		} else {
+			listTail = first.previous;
+			listTail.next = null;
+			first.previous = null;
+			rest.size = -1;
+			size = -1;
+		}
+		modCount += 1;
+		return rest;
+	}
+
+	/**
+	 * Moves the items from the one marked by first to the one marked by last,
+	 * inclusive, to the end of target in O(1) time. last must not come
+	 * before first. The cursors cannot be used afterwards.
+	 */
+	public void splice(Cursor first, Cursor last, SequenceDLList target)
+			throws SequenceDLListException {
+		Node from = ownNode(first);
+		Node to = ownNode(last);
+
+		detach(from, to);
+		target.attachBefore(from, to, null);
+	}
+
+	/**
+	 * Moves the items from the one marked by first to the one marked by last,
+	 * inclusive, to just before the item marked by position, which may be in
+	 * this sequence or another one, in O(1) time. last must not come before
+	 * first and position must not lie between them. The cursors first and
+	 * last cannot be used afterwards; position stays on its item.
+	 */
+	public void splice(Cursor first, Cursor last, Cursor position)
+			throws SequenceDLListException {
+		Node from = ownNode(first);
+		Node to = ownNode(last);
+		SequenceDLList target = position.list();
+		Node successor = target.ownNode(position);
+
+		detach(from, to);
+		target.attachBefore(from, to, successor);
+		position.expectedModCount = target.modCount;
+	}
+
 	/**
 	 * Empties the sequence.
 	 */
 	public void clear() {
 		listHead = null;
 		listTail = null;
+		size = 0;
+		modCount += 1;
+	}
+
+	/**
+	 * Returns the node marked by cursor, which must be a valid cursor of this
+	 * sequence.
+	 */
+	private Node ownNode(Cursor cursor) throws SequenceDLListException {
+		if (cursor.list() != this) {
+			throw new IllegalArgumentException("Cursor belongs to another sequence");
+		}
+		cursor.checkValid();
+		return cursor.node;
+	}
+
+	/**
+	 * Unlinks the run of nodes from first to last, leaving their links
+	 * between each other intact.
+	 */
+	private void detach(Node first, Node last) {
+		if (first.previous == null) {
+			listHead = last.next;
+		} else {
+			first.previous.next = last.next;
+		}
+		if (last.next == null) {
+			listTail = first.previous;
+		} else {
+			last.next.previous = first.previous;
+		}
+		first.previous = null;
+		last.next = null;
+
+		size = (listHead == null) ? 0 : -1;
+		modCount += 1;
+	}
+
+	/**
+	 * Links the detached run of nodes from first to last in before successor,
+	 * or at the end of the list if successor is null.
+	 */
+	private void attachBefore(Node first, Node last, Node successor) {
+		Node predecessor = (successor == null) ? listTail : successor.previous;
+
+		first.previous = predecessor;
+		last.next = successor;
+		if (predecessor == null) {
+			listHead = first;
+		} else {
+			predecessor.next = first;
+		}
+		if (successor == null) {
+			listTail = last;
+		} else {
+			successor.previous = last;
+		}
+
+		size = -1;
+		modCount += 1;
+	}
+
+	/**
+	 * Records a structural change that altered the number of items by delta.
+	 */
+	private void changed(int delta) {
+		if (size >= 0) {
+			size += delta;
+		}
+		modCount += 1;
+	}
+
+	/**
+	 * Returns the node at index, which must be in range, walking from the
+	 * nearer end of the list. The size must be known.
+	 */
+	private Node nodeAt(int index) {
+		Node nodePointer;
+		if (index < size / 2) {
+			nodePointer = listHead;
+			for (int i = 0; i < index; i++) {
+				nodePointer = nodePointer.next;
+			}
+		} else {
+			nodePointer = listTail;
+			for (int i = size - 1; i > index; i--) {
+				nodePointer = nodePointer.previous;
+			}
+		}
+		return nodePointer;
+	}
+
+	/**
+	 * Links a new node holding o in before successor, or at the end of the
+	 * list if successor is null, and returns it.
+	 */
+	private Node linkBefore(Object o, Node successor) {
+		Node predecessor = (successor == null) ? listTail : successor.previous;
+		Node node = new Node(o, successor, predecessor);
+
+		if (predecessor == null) {
+			listHead = node;
+		} else {
+			predecessor.next = node;
+		}
+		if (successor == null) {
+			listTail = node;
+		} else {
+			successor.previous = node;
+		}
+		changed(1);
+		return node;
+	}
+
+	/**
+	 * Unlinks node from the list.
+	 */
+	private void unlink(Node node) {
+		if (node.previous == null) {
+			listHead = node.next;
+		} else {
+			node.previous.next = node.next;
+		}
+		if (node.next == null) {
+			listTail = node.previous;
+		} else {
+			node.next.previous = node.previous;
+		}
+		changed(-1);
+	}
+
+	/**
+	 * Member class Cursor marks an item of the sequence. It can move along
+	 * the sequence and insert or delete items around itself in O(1) time.
+	 * A cursor that moves past either end, or whose item is deleted when
+	 * it is the last one, no longer marks an item: see isValid().
+	 */
+	public class Cursor {
+
+		private Node node;
+		private int expectedModCount;
+
+		private Cursor(Node n) {
+			node = n;
+			expectedModCount = modCount;
+		}
+
+		/**
+		 * Tests whether the cursor marks an item.
+		 */
+		public boolean isValid() {
+			checkForComodification();
+			return node != null;
+		}
+
+		/**
+		 * Returns the item marked by the cursor.
+		 */
+		public Object get() throws SequenceDLListException {
+			checkValid();
+			return node.datum;
+		}
+
+		/**
+		 * Replaces the item marked by the cursor.
+		 */
+		public void set(Object o) throws SequenceDLListException {
+			checkValid();
+			node.datum = o;
+		}
+
+		/**
+		 * Moves the cursor to the next item.
+		 */
+		public void next() throws SequenceDLListException {
+			checkValid();
+			node = node.next;
+		}
+
+		/**
+		 * Moves the cursor to the previous item.
+		 */
+		public void previous() throws SequenceDLListException {
+			checkValid();
+			node = node.previous;
+		}
+
+		/**
+		 * Adds a new item just before the one marked by the cursor.
+		 */
+		public void insertBefore(Object o) throws SequenceDLListException {
+			checkValid();
+			linkBefore(o, node);
+			expectedModCount = modCount;
+		}
+
+		/**
+		 * Adds a new item just after the one marked by the cursor.
+		 */
+		public void insertAfter(Object o) throws SequenceDLListException {
+			checkValid();
+			linkBefore(o, node.next);
+			expectedModCount = modCount;
+		}
+
+		/**
+		 * Removes the item marked by the cursor and moves on to the next one.
+		 */
+		public void delete() throws SequenceDLListException {
+			checkValid();
+			Node next = node.next;
+			unlink(node);
+			node = next;
+			expectedModCount = modCount;
+		}
+
+		private SequenceDLList list() {
+			return SequenceDLList.this;
+		}
+
+		private void checkValid() throws SequenceDLListException {
+			checkForComodification();
+			if (node == null) {
+				throw new SequenceDLListException("Cursor is off the sequence");
+			}
+		}
+
+		private void checkForComodification() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+	/**
+	 * The ListIterator over the sequence. next is the node the next call to
+	 * next() returns, or null at the end; lastReturned is the node that
+	 * remove() and set() act on.
+	 */
+	private class SequenceIterator implements ListIterator<Object> {
+
+		private Node next;
+		private Node lastReturned;
+		private int nextIndex;
+		private int expectedModCount = modCount;
+
+		SequenceIterator(Node n, int index) {
+			next = n;
+			nextIndex = index;
+		}
+
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		public Object next() {
+			checkForComodification();
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			lastReturned = next;
+			next = next.next;
+			nextIndex += 1;
+			return lastReturned.datum;
+		}
+
+		public boolean hasPrevious() {
+			return (next == null ? listTail : next.previous) != null;
+		}
+
+		public Object previous() {
+			checkForComodification();
+			Node previous = (next == null) ? listTail : next.previous;
+			if (previous == null) {
+				throw new NoSuchElementException();
+			}
+			next = previous;
+			lastReturned = previous;
+			nextIndex -= 1;
+			return previous.datum;
+		}
+
+		public int nextIndex() {
+			return nextIndex;
+		}
+
+		public int previousIndex() {
+			return nextIndex - 1;
+		}
+
+		public void remove() {
+			checkForComodification();
+			if (lastReturned == null) {
+				throw new IllegalStateException();
+			}
+			if (next == lastReturned) {
+				// Removing the item previous() returned.
+				next = lastReturned.next;
+			} else {
+				nextIndex -= 1;
+			}
+			unlink(lastReturned);
+			lastReturned = null;
+			expectedModCount = modCount;
+		}
+
+		public void set(Object o) {
+			checkForComodification();
+			if (lastReturned == null) {
+				throw new IllegalStateException();
+			}
+			lastReturned.datum = o;
+		}
+
+		public void add(Object o) {
+			checkForComodification();
+			linkBefore(o, next);
+			lastReturned = null;
+			nextIndex += 1;
+			expectedModCount = modCount;
+		}
+
+		private void checkForComodification() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
 	}
 }
@@ -0,0 +1,282 @@
+package linearDataStructures;
+
+/**
+ * <dl>
+ * <dt>Purpose: Implementation of Sequence ADT.
+ * <dd>
+ *
+ * <dt>Description:
+ * <dd>This class is an implementation of the Sequence using a balanced (AVL)
+ * binary tree as the underlying data structure. The tree is ordered by
+ * position rather than by key: an in-order walk visits the items in sequence
+ * order, and every node records the number of items in its subtree, so the
+ * index of a node is found from the sizes of the left subtrees on the way to
+ * it. The capacity is unlimited and overflow does not need to be checked.
+ *
+ * <dd>element(), insert() and delete() at any index take O(log n) time, as do
+ * the operations on the first and last items; size() is O(1).
+ * </dl>
+ *
+ * @author SamiStart
+ */
+
+public class SequenceTree {
+
+	public class SequenceTreeException extends Exception {
+
+		/**
+		 *
+		 */
+		private static final long serialVersionUID = 1L;
+
+		public SequenceTreeException() {
+			super();
+		}
+
+		public SequenceTreeException(String s) {
+			super(s);
+		}
+	}
+
+	/**
+	 * Member class Node encapsulates the nodes of the tree. Each node contains
+	 * a data item, its left and right subtrees, and the height and number of
+	 * items of the subtree rooted at it.
+	 */
+	protected class Node {
+
+		public Node(Object o) {
+			datum = o;
+			height = 1;
+			size = 1;
+		}
+
+		protected Object datum;
+		protected Node left;
+		protected Node right;
+		protected int height;
+		protected int size;
+	}
+
+	private Node root;
+
+	/**
+	 * Constructs an empty sequence object.
+	 */
+	public SequenceTree() {
+		root = null;
+	}
+
+	/**
+	 * Adds a new item at the beginning of the sequence.
+	 */
+	public void insertFirst(Object o) {
+		root = insert(root, o, 0);
+	}
+
+	/**
+	 * Adds a new item at the end of the sequence.
+	 */
+	public void insertLast(Object o) {
+		root = insert(root, o, size(root));
+	}
+
+	/**
+	 * Adds a new item at a specified position in the sequence.
+	 */
+	public void insert(Object o, int index) throws SequenceTreeException {
+		if (index < 0 || index > size(root)) {
+			throw new SequenceTreeException("Indexed Element out of Range");
+		}
+		root = insert(root, o, index);
+	}
+
+	/**
+	 * Removes the item at the beginning of the sequence.
+	 */
+	public void deleteFirst() throws SequenceTreeException {
+		// Check there is something in the sequence to delete.
+		if (root == null) {
+			throw new SequenceTreeException("Sequence Underflow");
+		}
+		root = delete(root, 0);
+	}
+
+	/**
+	 * Removes the item at the end of the sequence.
+	 */
+	public void deleteLast() throws SequenceTreeException {
+		// Check there is something in the sequence to delete.
+		if (root == null) {
+			throw new SequenceTreeException("Sequence Underflow");
+		}
+		root = delete(root, root.size - 1);
+	}
+
+	/**
+	 * Removes the item at the specified position in the sequence.
+	 */
+	public void delete(int index) throws SequenceTreeException {
+		// Check there is something in the sequence to delete.
+		if (root == null) {
+			throw new SequenceTreeException("Sequence Underflow");
+		}
+		if (index < 0 || index >= root.size) {
+			throw new SequenceTreeException("Indexed Element out of Range");
+		}
+		root = delete(root, index);
+	}
+
+	/**
+	 * Returns the item at the beginning of the sequence.
+	 */
+	public Object first() throws SequenceTreeException {
+		return element(0);
+	}
+
+	/**
+	 * Returns the item at the end of the sequence.
+	 */
+	public Object last() throws SequenceTreeException {
+		return element(size(root) - 1);
+	}
+
+	/**
+	 * Returns the item at the specified position in the sequence.
+	 */
+	public Object element(int index) throws SequenceTreeException {
+		if (index < 0 || index >= size(root)) {
+			throw new SequenceTreeException("Indexed Element out of Range");
+		}
+
+		// Go left while the index falls in the left subtree, otherwise skip
+		// it and the node itself and carry on to the right.
+		Node node = root;
+		while (true) {
+			int leftSize = size(node.left);
+			if (index < leftSize) {
+				node = node.left;
+			} else if (index == leftSize) {
+				return node.datum;
+			} else {
+				index -= leftSize + 1;
+				node = node.right;
+			}
+		}
+	}
+
+	/**
+	 * Tests whether there are any items in the sequence.
+	 */
+	public boolean empty() {
+		return (root == null);
+	}
+
+	/**
+	 * Returns the number of items in the sequence.
+	 */
+	public int size() {
+		return size(root);
+	}
+
+	/**
+	 * Empties the sequence.
+	 */
+	public void clear() {
+		root = null;
+	}
+
+	// private methods operating on subtrees. Each returns the root of the
+	// subtree it was given after the change; the recursion is only O(log n)
+	// deep.
+
+	private Node insert(Node node, Object o, int index) {
+		if (node == null) {
+			return new Node(o);
+		}
+
+		int leftSize = size(node.left);
+		if (index <= leftSize) {
+			node.left = insert(node.left, o, index);
+		} else {
+			node.right = insert(node.right, o, index - leftSize - 1);
+		}
+		return rebalance(node);
+	}
+
+	private Node delete(Node node, int index) {
+		int leftSize = size(node.left);
+		if (index < leftSize) {
+			node.left = delete(node.left, index);
+		} else if (index > leftSize) {
+			node.right = delete(node.right, index - leftSize - 1);
+		} else if (node.left == null) {
+			return node.right;
+		} else if (node.right == null) {
+			return node.left;
+		} else {
+			// Take over the item that follows this one, the first in the
+			// right subtree, and delete that instead.
+			Node next = node.right;
+			while (next.left != null) {
+				next = next.left;
+			}
+			node.datum = next.datum;
+			node.right = delete(node.right, 0);
+		}
+		return rebalance(node);
+	}
+
+	private int height(Node node) {
+		return node == null ? 0 : node.height;
+	}
+
+	private int size(Node node) {
+		return node == null ? 0 : node.size;
+	}
+
+	private void update(Node node) {
+		node.height = 1 + Math.max(height(node.left), height(node.right));
+		node.size = 1 + size(node.left) + size(node.right);
+	}
+
+	/**
+	 * Restores the AVL property at node, whose subtrees differ in height by
+	 * at most two, and returns the root of the resulting subtree.
+	 */
+	private Node rebalance(Node node) {
+		update(node);
+		int balance = height(node.left) - height(node.right);
+
+		if (balance > 1) {
+			if (height(node.left.left) < height(node.left.right)) {
+				node.left = rotateLeft(node.left);
+			}
+			return rotateRight(node);
+		} else if (balance < -1) {
+			if (height(node.right.right) < height(node.right.left)) {
+				node.right = rotateRight(node.right);
+			}
+			return rotateLeft(node);
+		}
+		return node;
+	}
+
+	private Node rotateRight(Node node) {
+		Node pivot = node.left;
+		node.left = pivot.right;
+		pivot.right = node;
+		update(node);
+		update(pivot);
+		return pivot;
+	}
+
+	private Node rotateLeft(Node node) {
+		Node pivot = node.right;
+		node.right = pivot.left;
+		pivot.left = node;
+		update(node);
+		update(pivot);
+		return pivot;
+	}
+}
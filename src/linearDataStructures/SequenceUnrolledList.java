@@ -0,0 +1,383 @@
+package linearDataStructures;
+
+import java.util.Arrays;
+
+/**
+ * <dl>
+ * <dt>Purpose: Implementation of Sequence ADT.
+ * <dd>
+ *
+ * <dt>Description:
+ * <dd>This class is an implementation of the Sequence using an unrolled
+ * linked list as the underlying data structure: a doubly linked list of
+ * nodes that each hold a small array of up to NODE_CAPACITY items. The
+ * capacity is therefore unlimited and overflow does not need to be checked.
+ *
+ * <dd>Compared with one node per item, the list needs a fraction of the
+ * objects and references, and a walk to an index steps over whole nodes and
+ * reads items that lie next to each other in memory. Inserting and deleting
+ * at either end are O(1). Walks by index start from whichever end is nearer
+ * and size() is O(1).
+ * </dl>
+ *
+ * @author SamiStart
+ */
+
+public class SequenceUnrolledList {
+
+	public class SequenceUnrolledListException extends Exception {
+
+		/**
+		 *
+		 */
+		private static final long serialVersionUID = 1L;
+
+		public SequenceUnrolledListException() {
+			super();
+		}
+
+		public SequenceUnrolledListException(String s) {
+			super(s);
+		}
+	}
+
+	/**
+	 * Maximum number of items held by each node.
+	 */
+	public static final int NODE_CAPACITY = 64;
+
+	/**
+	 * Member class Node encapsulates the nodes of the linked list. The items
+	 * of a node occupy items[start] to items[start + count - 1], so that
+	 * either end of a node can grow without moving the others.
+	 */
+	protected class Node {
+
+		public Node(int start, Node nNext, Node nPrevious) {
+			items = new Object[NODE_CAPACITY];
+			this.start = start;
+			next = nNext;
+			previous = nPrevious;
+		}
+
+		protected Object[] items;
+		protected int start;
+		protected int count;
+		protected Node next;
+		protected Node previous;
+	}
+
+	// References to the first and last nodes of the list.
+	private Node listHead;
+	private Node listTail;
+	private int size;
+
+	// Offset within the node returned by the last call to locate().
+	private int offset;
+
+	/**
+	 * Constructs an empty sequence object.
+	 */
+	public SequenceUnrolledList() {
+		listHead = null;
+		listTail = null;
+	}
+
+	/**
+	 * Adds a new item at the beginning of the sequence.
+	 */
+	public void insertFirst(Object o) {
+		// Start a new node when the first one has no room in front. It is
+		// filled from the back, so later insertFirst calls use it too.
+		if (listHead == null || listHead.start == 0) {
+			Node node = new Node(NODE_CAPACITY, listHead, null);
+			if (listHead == null) {
+				listTail = node;
+			} else {
+				listHead.previous = node;
+			}
+			listHead = node;
+		}
+
+		listHead.start -= 1;
+		listHead.items[listHead.start] = o;
+		listHead.count += 1;
+		size += 1;
+	}
+
+	/**
+	 * Adds a new item at the end of the sequence.
+	 */
+	public void insertLast(Object o) {
+		if (listTail == null || listTail.start + listTail.count == NODE_CAPACITY) {
+			Node node = new Node(0, null, listTail);
+			if (listTail == null) {
+				listHead = node;
+			} else {
+				listTail.next = node;
+			}
+			listTail = node;
+		}
+
+		listTail.items[listTail.start + listTail.count] = o;
+		listTail.count += 1;
+		size += 1;
+	}
+
+	/**
+	 * Adds a new item at a specified position in the sequence.
+	 */
+	public void insert(Object o, int index)
+			throws SequenceUnrolledListException {
+		if (index < 0 || index > size) {
+			throw new SequenceUnrolledListException(
+					"Indexed Element out of Range");
+		}
+
+		if (index == 0) {
+			insertFirst(o);
+			return;
+		} else if (index == size) {
+			insertLast(o);
+			return;
+		}
+
+		Node node = locate(index);
+		int i = offset;
+
+		// A full node is split in two, half of its items moving to a new
+		// node after it.
+		if (node.count == NODE_CAPACITY) {
+			int half = NODE_CAPACITY / 2;
+			Node upper = new Node(0, node.next, node);
+			System.arraycopy(node.items, half, upper.items, 0, NODE_CAPACITY
+					- half);
+			Arrays.fill(node.items, half, NODE_CAPACITY, null);
+			upper.count = NODE_CAPACITY - half;
+			node.count = half;
+			linkAfter(node, upper);
+
+			if (i >= half) {
+				node = upper;
+				i -= half;
+			}
+		}
+
+		// Make room by moving the items on whichever side has space.
+		if (node.start + node.count < NODE_CAPACITY) {
+			System.arraycopy(node.items, node.start + i, node.items,
+					node.start + i + 1, node.count - i);
+		} else {
+			System.arraycopy(node.items, node.start, node.items,
+					node.start - 1, i);
+			node.start -= 1;
+		}
+		node.items[node.start + i] = o;
+		node.count += 1;
+		size += 1;
+	}
+
+	/**
+	 * Removes the item at the beginning of the sequence.
+	 */
+	public void deleteFirst() throws SequenceUnrolledListException {
+		// Check there is something in the sequence to delete.
+		if (listHead == null) {
+			throw new SequenceUnrolledListException("Sequence Underflow");
+		}
+
+		listHead.items[listHead.start] = null;
+		listHead.start += 1;
+		listHead.count -= 1;
+		size -= 1;
+		if (listHead.count == 0) {
+			unlink(listHead);
+		}
+	}
+
+	/**
+	 * Removes the item at the end of the sequence.
+	 */
+	public void deleteLast() throws SequenceUnrolledListException {
+		// Check there is something in the sequence to delete.
+		if (listTail == null) {
+			throw new SequenceUnrolledListException("Sequence Underflow");
+		}
+
+		listTail.count -= 1;
+		listTail.items[listTail.start + listTail.count] = null;
+		size -= 1;
+		if (listTail.count == 0) {
+			unlink(listTail);
+		}
+	}
+
+	/**
+	 * Removes the item at the specified position in the sequence.
+	 */
+	public void delete(int index) throws SequenceUnrolledListException {
+		// Check there is something in the sequence to delete.
+		if (listHead == null) {
+			throw new SequenceUnrolledListException("Sequence Underflow");
+		}
+
+		if (index < 0 || index >= size) {
+			throw new SequenceUnrolledListException(
+					"Indexed Element out of Range");
+		}
+
+		Node node = locate(index);
+		int i = offset;
+
+		// Close the gap from whichever side has fewer items to move.
+		if (i < node.count / 2) {
+			System.arraycopy(node.items, node.start, node.items,
+					node.start + 1, i);
+			node.items[node.start] = null;
+			node.start += 1;
+		} else {
+			System.arraycopy(node.items, node.start + i + 1, node.items,
+					node.start + i, node.count - i - 1);
+			node.items[node.start + node.count - 1] = null;
+		}
+		node.count -= 1;
+		size -= 1;
+
+		if (node.count == 0) {
+			unlink(node);
+		} else if (node.next != null
+				&& node.count + node.next.count <= NODE_CAPACITY / 2) {
+			merge(node, node.next);
+		} else if (node.previous != null
+				&& node.previous.count + node.count <= NODE_CAPACITY / 2) {
+			merge(node.previous, node);
+		}
+	}
+
+	/**
+	 * Returns the item at the beginning of the sequence.
+	 */
+	public Object first() throws SequenceUnrolledListException {
+		if (listHead != null) {
+			return listHead.items[listHead.start];
+		} else {
+			throw new SequenceUnrolledListException(
+					"Indexed Element out of Range");
+		}
+	}
+
+	/**
+	 * Returns the item at the end of the sequence.
+	 */
+	public Object last() throws SequenceUnrolledListException {
+		if (listTail != null) {
+			return listTail.items[listTail.start + listTail.count - 1];
+		} else {
+			throw new SequenceUnrolledListException(
+					"Indexed Element out of Range");
+		}
+	}
+
+	/**
+	 * Returns the item at the specified position in the sequence.
+	 */
+	public Object element(int index) throws SequenceUnrolledListException {
+		if (index < 0 || index >= size) {
+			throw new SequenceUnrolledListException(
+					"Indexed Element out of Range");
+		}
+
+		Node node = locate(index);
+		return node.items[node.start + offset];
+	}
+
+	/**
+	 * Tests whether there are any items in the sequence.
+	 */
+	public boolean empty() {
+		return (listHead == null);
+	}
+
+	/**
+	 * Returns the number of items in the sequence.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Empties the sequence.
+	 */
+	public void clear() {
+		listHead = null;
+		listTail = null;
+		size = 0;
+	}
+
+	/**
+	 * Returns the node holding the item at index, which must be in range,
+	 * and leaves the item's position within that node in offset. The walk
+	 * starts from the nearer end of the list.
+	 */
+	private Node locate(int index) {
+		Node node;
+		if (index < size / 2) {
+			node = listHead;
+			while (index >= node.count) {
+				index -= node.count;
+				node = node.next;
+			}
+		} else {
+			node = listTail;
+			index = size - 1 - index;
+			while (index >= node.count) {
+				index -= node.count;
+				node = node.previous;
+			}
+			index = node.count - 1 - index;
+		}
+		offset = index;
+		return node;
+	}
+
+	private void linkAfter(Node node, Node newNode) {
+		if (node.next == null) {
+			listTail = newNode;
+		} else {
+			node.next.previous = newNode;
+		}
+		node.next = newNode;
+	}
+
+	private void unlink(Node node) {
+		if (node.previous == null) {
+			listHead = node.next;
+		} else {
+			node.previous.next = node.next;
+		}
+		if (node.next == null) {
+			listTail = node.previous;
+		} else {
+			node.next.previous = node.previous;
+		}
+	}
+
+	/**
+	 * Moves the items of second, the node after first, to the end of first
+	 * and unlinks second. Their counts must add up to no more than
+	 * NODE_CAPACITY.
+	 */
+	private void merge(Node first, Node second) {
+		if (first.start + first.count + second.count > NODE_CAPACITY) {
+			System.arraycopy(first.items, first.start, first.items, 0,
+					first.count);
+			Arrays.fill(first.items, Math.max(first.count, first.start),
+					first.start + first.count, null);
+			first.start = 0;
+		}
+		System.arraycopy(second.items, second.start, first.items, first.start
+				+ first.count, second.count);
+		first.count += second.count;
+		unlink(second);
+	}
+}
@@ -20,7 +20,11 @@ import java.util.Vector;
  * 
  * @author SamiStart
  * @date 04/02/15
+ * @deprecated Every call synchronises on the Vector, deQueue() returns the
+ *             most recent item rather than the oldest, and items are never
+ *             released. Use ArrayQueue instead.
  */
+@Deprecated
 public class VectorQueue extends Vector<Object> {
 
 	private int queueSize;
@@ -0,0 +1,51 @@
+package linearDataStructures;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a thread waits on a full or empty ring queue. Each strategy is called
+ * with the number of times the thread has already waited for the current
+ * item, and backs off progressively:
+ * <ul>
+ * <li>SPIN retries at once; lowest latency, but burns a core per waiting
+ * thread</li>
+ * <li>YIELD spins briefly, then yields the processor between retries</li>
+ * <li>PARK spins and yields briefly, then sleeps for a few microseconds
+ * between retries; cheapest when queues are often idle</li>
+ * </ul>
+ *
+ * @author SamiStart
+ */
+public enum WaitStrategy {
+
+	SPIN {
+		void idle(int attempts) {
+			// Retry straight away.
+		}
+	},
+
+	YIELD {
+		void idle(int attempts) {
+			if (attempts >= SPIN_TRIES) {
+				Thread.yield();
+			}
+		}
+	},
+
+	PARK {
+		void idle(int attempts) {
+			if (attempts >= SPIN_TRIES + YIELD_TRIES) {
+				LockSupport.parkNanos(PARK_NANOS);
+			} else if (attempts >= SPIN_TRIES) {
+				Thread.yield();
+			}
+		}
+	};
+
+	private static final int SPIN_TRIES = 100;
+	private static final int YIELD_TRIES = 100;
+	private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+	abstract void idle(int attempts);
+}